@@ -0,0 +1,292 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.zip.*;
+
+// Writes backup archives straight from a list of events, one row at a time, instead of
+// saving the CSV files first and copying them into the ZIP.
+//
+//   event.csv, recurrent.csv  the usual data files, so any restore path can read them
+//   manifest.csv              month,events,checksum,included for every month with events
+//
+// A month's checksum is the sum of a CRC-32 over each of its events' values (id, text, times
+// and rule), so it does not depend on list order and needs no formatting to work out.
+// After a full backup its manifest is kept next to the data; an incremental backup
+// compares against it and only writes the months whose checksum moved
+// (a month emptied since then is listed with no events). Restoring a full backup and then
+// appending the latest incremental gives back the current data.
+//
+// "Store only" is deflate level 0: the bytes go out uncompressed, but entries can still
+// be streamed without knowing their size and CRC up front as a STORED entry would need.
+public class BackupWriter {
+    public enum Kind { FULL, INCREMENTAL }
+
+    // Called on the backup thread, every PROGRESS_STEP events and once at the end
+    public interface ProgressListener {
+        void onProgress(long done, long total);
+    }
+
+    public static final String MANIFEST_ENTRY = "manifest.csv";
+    private static final int PROGRESS_STEP = 4096;
+
+    // What a finished backup holds; an incremental without a base is written as a full one
+    public static class Result {
+        public final Kind kind;
+        public final int events;      // events written to the archive
+        public final int months;      // months holding events
+        public final int monthsWritten;
+        public final long bytes;      // archive size
+
+        Result(Kind kind, int events, int months, int monthsWritten, long bytes) {
+            this.kind = kind;
+            this.events = events;
+            this.months = months;
+            this.monthsWritten = monthsWritten;
+            this.bytes = bytes;
+        }
+    }
+
+    private final FileHandler format;
+    private final Path baseManifest; // manifest of the last full backup
+
+    public BackupWriter(FileHandler format, String baseManifest) {
+        this.format = format;
+        this.baseManifest = Paths.get(baseManifest);
+    }
+
+    // Streams the events into dest at the given deflate level (0-9, or Deflater.DEFAULT_COMPRESSION).
+    // The archive is built next to dest and moved into place once complete.
+    public Result write(List<Event> events, String dest, Kind kind, int level, ProgressListener listener)
+            throws IOException {
+        Manifest base = kind == Kind.INCREMENTAL ? readBase() : null;
+        if (base == null) kind = Kind.FULL;
+
+        // An incremental needs every month's checksum before it knows what to write
+        Manifest current = null;
+        Set<YearMonth> changed = null;
+        long total = events.size();
+        if (kind == Kind.INCREMENTAL) {
+            current = summarize(events, listener, 2L * events.size());
+            changed = current.changedSince(base);
+            int toWrite = 0;
+            for (Event e : events) {
+                if (changed.contains(MonthPartitionStore.homeOf(e))) toWrite++;
+            }
+            total = events.size() + toWrite;
+        }
+
+        Path target = Paths.get(dest);
+        Path tmp = Paths.get(dest + ".tmp");
+        Manifest written = new Manifest();
+        int eventsWritten = 0;
+        try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            zos.setLevel(level);
+            zos.setComment("Calendar " + kind.name().toLowerCase() + " backup, " + LocalDateTime.now().withNano(0));
+            Writer out = new BufferedWriter(new OutputStreamWriter(zos, StandardCharsets.UTF_8), 1 << 16);
+
+            // recurrent.csv is buffered: it only holds the repeating events
+            StringBuilder recurrences = new StringBuilder("eventId,recurrentInterval,recurrentTimes,recurrentEndDate\n");
+            zos.putNextEntry(new ZipEntry("event.csv"));
+            out.write("eventId,title,description,startDateTime,endDateTime\n");
+            long done = kind == Kind.INCREMENTAL ? events.size() : 0;
+            for (Event e : events) {
+                YearMonth month = MonthPartitionStore.homeOf(e);
+                if (changed == null || changed.contains(month)) {
+                    String row = format.formatEventLine(e);
+                    Recurrence r = e.getRecurrence();
+                    String rule = r.formatInterval() + "," + r.count + "," + r.formatEndDate();
+                    out.write(row);
+                    out.write('\n');
+                    if (r.frequency != Recurrence.Frequency.NONE) {
+                        recurrences.append(e.getId()).append(',').append(rule).append('\n');
+                    }
+                    written.add(month, checksum(e));
+                    eventsWritten++;
+                    if (++done % PROGRESS_STEP == 0 && listener != null) listener.onProgress(done, total);
+                }
+            }
+            out.flush();
+            zos.closeEntry();
+
+            zos.putNextEntry(new ZipEntry("recurrent.csv"));
+            out.write(recurrences.toString());
+            out.flush();
+            zos.closeEntry();
+
+            // An incremental lists every current month, plus the ones emptied since the base
+            Manifest manifest = written;
+            if (kind == Kind.INCREMENTAL) {
+                manifest = current;
+                for (YearMonth m : changed) manifest.include(m);
+            } else {
+                for (YearMonth m : written.months.keySet()) written.include(m);
+            }
+            zos.putNextEntry(new ZipEntry(MANIFEST_ENTRY));
+            manifest.write(out);
+            out.flush();
+            zos.closeEntry();
+            zos.finish();
+
+            if (kind == Kind.FULL) current = written;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        if (listener != null) listener.onProgress(total, total);
+
+        if (kind == Kind.FULL) saveBase(current);
+        return new Result(kind, eventsWritten, current.months.size(),
+                kind == Kind.FULL ? current.months.size() : changed.size(), Files.size(target));
+    }
+
+    // Checksums every month without writing anything
+    private Manifest summarize(List<Event> events, ProgressListener listener, long total) {
+        Manifest manifest = new Manifest();
+        long done = 0;
+        for (Event e : events) {
+            manifest.add(MonthPartitionStore.homeOf(e), checksum(e));
+            if (++done % PROGRESS_STEP == 0 && listener != null) listener.onProgress(done, total);
+        }
+        return manifest;
+    }
+
+    // CRC-32 of everything the archive stores for the event, read straight from its columns.
+    // recurrent.csv has no row for an event that does not repeat, so its rule is hashed as
+    // Recurrence.NONE, which is what a restore gives back, whatever the columns hold.
+    static long checksum(Event e) {
+        EventColumns c = e.getColumns();
+        int slot = e.getSlot();
+        ByteBuffer values = ByteBuffer.allocate(40);
+        values.putInt(c.id(slot)).putLong(c.start(slot)).putLong(c.end(slot));
+        Recurrence.Frequency frequency = Recurrence.frequency(c.frequency(slot));
+        if (frequency == Recurrence.Frequency.NONE) {
+            Recurrence none = Recurrence.NONE;
+            values.put((byte) none.frequency.ordinal()).putInt(none.interval).put((byte) none.byDay);
+            values.putInt(none.count).putInt(Recurrence.NO_UNTIL);
+        } else {
+            values.put((byte) frequency.ordinal()).putInt(c.interval(slot)).put((byte) c.byDay(slot));
+            values.putInt(c.count(slot)).putInt(c.until(slot));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(values.array(), 0, values.position());
+        crc.update(text(c.title(slot)));
+        crc.update(0);
+        crc.update(text(c.description(slot)));
+        return crc.getValue();
+    }
+
+    private static byte[] text(String s) {
+        return s == null ? new byte[0] : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // --- Base Manifest ---
+    private Manifest readBase() throws IOException {
+        if (!Files.exists(baseManifest)) return null;
+        try (Reader in = Files.newBufferedReader(baseManifest, StandardCharsets.UTF_8)) {
+            return Manifest.read(in);
+        }
+    }
+
+    private void saveBase(Manifest manifest) throws IOException {
+        Path tmp = Paths.get(baseManifest + ".tmp");
+        try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            manifest.write(out);
+        }
+        Files.move(tmp, baseManifest, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // The manifest inside an archive, or null for archives written before manifests existed
+    public static Manifest readManifest(String zipPath) throws IOException {
+        try (ZipFile zip = new ZipFile(zipPath)) {
+            ZipEntry entry = zip.getEntry(MANIFEST_ENTRY);
+            if (entry == null) return null;
+            try (Reader in = new InputStreamReader(zip.getInputStream(entry), StandardCharsets.UTF_8)) {
+                return Manifest.read(in);
+            }
+        }
+    }
+
+    // --- Manifest ---
+    // month -> {events, checksum}, plus the months whose events the archive carries
+    public static class Manifest {
+        private final Map<YearMonth, long[]> months = new TreeMap<>();
+        private final Set<YearMonth> included = new TreeSet<>();
+
+        void add(YearMonth month, long checksum) {
+            long[] stats = months.computeIfAbsent(month, m -> new long[2]);
+            stats[0]++;
+            stats[1] += checksum;
+        }
+
+        void include(YearMonth month) {
+            included.add(month);
+        }
+
+        // Months whose events differ from the base, including months that are gone now
+        Set<YearMonth> changedSince(Manifest base) {
+            Set<YearMonth> changed = new TreeSet<>();
+            for (Map.Entry<YearMonth, long[]> entry : months.entrySet()) {
+                if (!Arrays.equals(entry.getValue(), base.months.get(entry.getKey()))) changed.add(entry.getKey());
+            }
+            for (YearMonth m : base.months.keySet()) {
+                if (!months.containsKey(m)) changed.add(m);
+            }
+            return changed;
+        }
+
+        // True when the archive only carries some months and has to be applied over a full restore
+        public boolean isPartial() {
+            return !included.containsAll(months.keySet());
+        }
+
+        public Set<YearMonth> getIncludedMonths() { return Collections.unmodifiableSet(included); }
+
+        // Throws if the archive's events do not add up to the checksums of the months it carries
+        public void verify(List<Event> events) throws IOException {
+            Manifest actual = new Manifest();
+            for (Event e : events) actual.add(MonthPartitionStore.homeOf(e), checksum(e));
+            for (YearMonth m : included) {
+                long[] expected = months.getOrDefault(m, new long[2]);
+                if (!Arrays.equals(expected, actual.months.getOrDefault(m, new long[2]))) {
+                    throw new IOException("Backup is damaged: checksum mismatch for " + m);
+                }
+            }
+            for (YearMonth m : actual.months.keySet()) {
+                if (!included.contains(m)) throw new IOException("Backup is damaged: unexpected events for " + m);
+            }
+        }
+
+        void write(Writer out) throws IOException {
+            out.write("month,events,checksum,included\n");
+            Set<YearMonth> all = new TreeSet<>(months.keySet());
+            all.addAll(included);
+            for (YearMonth m : all) {
+                long[] stats = months.getOrDefault(m, new long[2]);
+                out.write(m + "," + stats[0] + "," + Long.toHexString(stats[1]) + "," + (included.contains(m) ? 1 : 0) + "\n");
+            }
+        }
+
+        static Manifest read(Reader in) throws IOException {
+            Manifest manifest = new Manifest();
+            CsvReader reader = new CsvReader(in);
+            reader.next(); // Skip header
+            while (reader.next()) {
+                if (reader.isBlankLine()) continue;
+                try {
+                    YearMonth m = YearMonth.parse(reader.getString(0));
+                    long count = reader.getInt(1);
+                    if (count > 0) manifest.months.put(m, new long[]{count, Long.parseUnsignedLong(reader.getString(2), 16)});
+                    if (reader.getInt(3) != 0) manifest.included.add(m);
+                } catch (RuntimeException ex) {
+                    throw new IOException("Bad manifest line: " + reader.describe(), ex);
+                }
+            }
+            return manifest;
+        }
+    }
+}
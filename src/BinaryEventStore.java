@@ -0,0 +1,248 @@
+import java.io.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+// Compact binary event file, read through a memory mapping. Each read maps the file, copies
+// out what it needs and unmaps it again before returning, so no mapping is left open when
+// saveEvents replaces the file (on Windows an open mapping makes that replace fail).
+//
+// Layout (big-endian):
+//   header   magic, version, record count, reserved (4 x int), heap offset (long), heap length (long)
+//   records  RECORD_SIZE bytes each:
+//            id int | start minute long | end minute long | frequency byte | weekdays byte | reserved short |
+//            recurCount int | last day int | title offset int | title length int | desc offset int |
+//            desc length int | until day int | interval int
+//   heap     UTF-8 bytes of every title and description
+//
+// Version 2 records are 52 bytes with the interval as a short in the reserved field; version 1
+// records are 48 bytes: no until day, and the weekday and interval bytes are zero.
+//
+// Times are stored as minutes since the epoch (seconds are dropped, the UI works in HH:mm).
+// "last day" is the epoch day the series' final occurrence ends, so range queries can
+// skip records using the fixed-width region alone.
+public class BinaryEventStore {
+    private static final int MAGIC = 0x43414C42; // "CALB"
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 56;
+    private static final int V2_RECORD_SIZE = 52;
+    private static final int V1_RECORD_SIZE = 48;
+
+    private final Path path;
+
+    public BinaryEventStore(String file) {
+        this.path = Paths.get(file);
+    }
+
+    public boolean exists() {
+        return Files.exists(path);
+    }
+
+    // --- Writing ---
+    // Synchronized with the reads, so the replace never happens while a mapping is open
+    public synchronized void saveEvents(List<Event> events) throws IOException {
+        Path tmp = Paths.get(path + ".tmp");
+        byte[][] titles = new byte[events.size()][];
+        byte[][] descs = new byte[events.size()][];
+        long heapLength = 0;
+        for (int i = 0; i < events.size(); i++) {
+            titles[i] = bytesOf(events.get(i).getTitle());
+            descs[i] = bytesOf(events.get(i).getDescription());
+            heapLength += titles[i].length + descs[i].length;
+        }
+        if (heapLength > Integer.MAX_VALUE) throw new IOException("String heap too large for binary store");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            long heapOffset = HEADER_SIZE + (long) RECORD_SIZE * events.size();
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(events.size());
+            out.writeInt(0);
+            out.writeLong(heapOffset);
+            out.writeLong(heapLength);
+
+            int heapPos = 0;
+            for (int i = 0; i < events.size(); i++) {
+                Event e = events.get(i);
+                out.writeInt(e.getId());
+                out.writeLong(toEpochMinute(e.getStart()));
+                out.writeLong(toEpochMinute(e.getEnd()));
+                Recurrence r = e.getRecurrence();
+                out.writeByte(r.frequency.ordinal());
+                out.writeByte(r.byDay);
+                out.writeShort(0);
+                out.writeInt(r.count);
+                out.writeInt((int) e.getSpanEnd().toLocalDate().toEpochDay());
+                out.writeInt(heapPos);
+                out.writeInt(titles[i].length);
+                heapPos += titles[i].length;
+                out.writeInt(heapPos);
+                out.writeInt(descs[i].length);
+                heapPos += descs[i].length;
+                out.writeInt(r.until == null ? Recurrence.NO_UNTIL : (int) r.until.toEpochDay());
+                out.writeInt(r.interval);
+            }
+            for (int i = 0; i < events.size(); i++) {
+                out.write(titles[i]);
+                out.write(descs[i]);
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // --- Reading ---
+    public List<Event> loadEvents() throws IOException {
+        if (!exists()) return new ArrayList<>();
+        return withMapping(buf -> {
+            List<Event> list = new ArrayList<>();
+            int count = readHeader(buf);
+            int recordSize = recordSize(buf);
+            int heapOffset = (int) buf.getLong(16);
+            for (int i = 0; i < count; i++) {
+                list.add(decode(buf, HEADER_SIZE + i * recordSize, recordSize, heapOffset));
+            }
+            return list;
+        });
+    }
+
+    // Events with an occurrence starting in [from, to]. Only records whose span overlaps
+    // the range are decoded; everything else is rejected from the fixed-width fields.
+    public List<Event> queryRange(LocalDate from, LocalDate to) throws IOException {
+        if (!exists()) return new ArrayList<>();
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        return withMapping(buf -> {
+            List<Event> list = new ArrayList<>();
+            int count = readHeader(buf);
+            int recordSize = recordSize(buf);
+            int heapOffset = (int) buf.getLong(16);
+            for (int i = 0; i < count; i++) {
+                int rec = HEADER_SIZE + i * recordSize;
+                long firstDay = Math.floorDiv(buf.getLong(rec + 4), 1440L);
+                int lastDay = buf.getInt(rec + 28);
+                if (firstDay > toDay || lastDay < fromDay) continue;
+
+                Event e = decode(buf, rec, recordSize, heapOffset);
+                if (e.occursBetween(from, to)) list.add(e);
+            }
+            return list;
+        });
+    }
+
+    public int count() throws IOException {
+        return exists() ? withMapping(this::readHeader) : 0;
+    }
+
+    // --- Mapping ---
+    private interface MappedRead<T> {
+        T read(ByteBuffer buf) throws IOException;
+    }
+
+    // Maps the file for one read and unmaps it before returning. The body must copy out
+    // everything it keeps: the buffer is invalid once this returns.
+    private synchronized <T> T withMapping(MappedRead<T> body) throws IOException {
+        MappedByteBuffer buf;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Binary store larger than 2 GB");
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            return body.read(buf);
+        } finally {
+            unmap(buf);
+        }
+    }
+
+    // Unsafe.invokeCleaner releases a mapping right away; where it is missing the
+    // mapping is left to the garbage collector as before
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+    static {
+        Object unsafe = null;
+        Method cleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            cleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            cleaner = null; // not available on this runtime
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = cleaner;
+    }
+
+    private static void unmap(MappedByteBuffer buf) {
+        if (INVOKE_CLEANER == null) return;
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buf);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // left to the garbage collector
+        }
+    }
+
+    // --- Helpers ---
+
+    private int readHeader(ByteBuffer buf) throws IOException {
+        if (buf.capacity() < HEADER_SIZE || buf.getInt(0) != MAGIC) throw new IOException("Not a calendar binary store: " + path);
+        if (buf.getInt(4) < 1 || buf.getInt(4) > VERSION) throw new IOException("Unsupported binary store version " + buf.getInt(4));
+        int count = buf.getInt(8);
+        if ((long) HEADER_SIZE + (long) count * recordSize(buf) + buf.getLong(24) > buf.capacity()) {
+            throw new IOException("Truncated binary store: " + path);
+        }
+        return count;
+    }
+
+    private static int recordSize(ByteBuffer buf) {
+        switch (buf.getInt(4)) {
+            case 1: return V1_RECORD_SIZE;
+            case 2: return V2_RECORD_SIZE;
+            default: return RECORD_SIZE;
+        }
+    }
+
+    private Event decode(ByteBuffer buf, int rec, int recordSize, int heapOffset) {
+        int id = buf.getInt(rec);
+        LocalDateTime start = fromEpochMinute(buf.getLong(rec + 4));
+        LocalDateTime end = fromEpochMinute(buf.getLong(rec + 12));
+        int code = buf.get(rec + 20);
+        int byDay = buf.get(rec + 21);
+        int interval = recordSize > V2_RECORD_SIZE ? buf.getInt(rec + 52) : buf.getShort(rec + 22);
+        int recurCount = buf.getInt(rec + 24);
+        String title = readString(buf, heapOffset + buf.getInt(rec + 32), buf.getInt(rec + 36));
+        String desc = readString(buf, heapOffset + buf.getInt(rec + 40), buf.getInt(rec + 44));
+        int until = recordSize > V1_RECORD_SIZE ? buf.getInt(rec + 48) : Recurrence.NO_UNTIL;
+
+        Recurrence recurrence = new Recurrence(Recurrence.frequency(code), interval, byDay, recurCount,
+                until == Recurrence.NO_UNTIL ? null : LocalDate.ofEpochDay(until));
+        return new Event(id, title, desc, start, end, recurrence);
+    }
+
+    private static String readString(ByteBuffer buf, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buf.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytesOf(String s) {
+        return s == null ? new byte[0] : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long toEpochMinute(LocalDateTime t) {
+        return Math.floorDiv(t.toEpochSecond(ZoneOffset.UTC), 60L);
+    }
+
+    private static LocalDateTime fromEpochMinute(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -1,169 +1,633 @@
+import java.io.IOException;
 import java.time.*;
-import java.time.temporal.TemporalAdjusters;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
+// Threading: every change runs under writeLock and ends by publishing a new CalendarState.
+// Readers (rendering, searches, reminders, background saves) work from the published state
+// and never take the lock, except in LAZY mode when a query reaches months that are not
+// resident yet and has to load them. Every other field is only touched with the lock held.
 public class CalendarController {
 
     // State Management
     public enum ViewMode { CALENDAR, LIST }
     public enum TimeScale { DAY, WEEK, MONTH }
 
+    // --- Concurrency ---
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicReference<CalendarState> state = new AtomicReference<>();
+    private long version = 0;
+
     private ViewMode currentMode = ViewMode.CALENDAR;
     private TimeScale currentScale = TimeScale.MONTH;
     private LocalDate referenceDate = LocalDate.now();
 
-    private List<Event> events = new ArrayList<>();
+    private List<Event> events = new ArrayList<>(); // unordered: a removal moves the last event into the gap
+    private EventColumns columns = new EventColumns(); // backs every Event in the list above
+    private final IntHashMap<Event> byId = new IntHashMap<>(); // resident events by id
+    private int[] positions = new int[0]; // index in events, per columns slot
+    private int nextId = 1; // above every id handed out or loaded
+    private final EventIndex index = new EventIndex();
+    private final SearchIndex searchIndex = new SearchIndex(); // title/description search
+    private final OccurrenceCache occurrenceCache = new OccurrenceCache();
+    private final SnapshotPrefetcher prefetcher = new SnapshotPrefetcher(occurrenceCache); // current and adjacent ranges
     private FileHandler fileHandler = new FileHandler();
 
+    // How edits reach the disk:
+    // REWRITE rewrites the whole snapshot, JOURNAL appends to data/journal.log,
+    // LAZY keeps events in per-month partitions and only holds the visible months in memory
+    public enum StorageMode { REWRITE, JOURNAL, LAZY }
+
+    // Months kept resident on each side of the visible range in LAZY mode
+    private static final int PREFETCH_MONTHS = 1;
+
+    private final StorageMode storageMode;
+    private MonthPartitionStore partitions;
+    private YearMonth windowStart, windowEnd; // resident window in LAZY mode
+
+    // All disk writes go through here, off the Swing thread
+    private final PersistenceWorker persistence = new PersistenceWorker();
+    private volatile boolean compactionQueued = false;
+
+    // Backups stream from memory on their own thread; the manifest of the last full one sits next to the data
+    private final BackupWriter backups = new BackupWriter(fileHandler, "data/backup-manifest.csv");
+    private final ExecutorService backupExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "calendar-backup");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Next occurrence of every series, fired shortly before it starts
+    private static final Duration REMINDER_LEAD = Duration.ofMinutes(15);
+    private final ReminderScheduler reminders = new ReminderScheduler(REMINDER_LEAD);
+
     public CalendarController() {
+        this(StorageMode.JOURNAL);
+    }
+
+    public CalendarController(StorageMode storageMode) {
+        this.storageMode = storageMode;
+        try {
+            if (storageMode == StorageMode.LAZY) {
+                partitions = new MonthPartitionStore("data/months", fileHandler);
+                if (partitions.exists()) {
+                    partitions.open();
+                } else {
+                    partitions.rebuild(fileHandler.loadEvents()); // first run: split the existing data
+                }
+                nextId = partitions.getMaxId() + 1;
+            } else {
+                resetResident(fileHandler.loadEvents());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        index.rebuild(events);
+        searchIndex.rebuild(events);
+        refreshResidentWindow();
+        prefetchAdjacent();
+        reminders.rebuild(allEvents());
+        publish();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "calendar-flush"));
+    }
+
+    // The current version; everything read from it stays consistent however long it is kept
+    public CalendarState getState() { return state.get(); }
+
+    // Makes the writer's changes visible to readers; called with writeLock held
+    private void publish() {
+        columns.recycle(); // slots freed before the previous state was replaced can be reused now
+        state.set(new CalendarState(++version, currentMode, currentScale, referenceDate, nextId, index.snapshot(),
+                isLazy() ? windowStart : null, isLazy() ? windowEnd : null));
+    }
+
+    // A state in which everything that can occur in [from, to] is resident: the current one,
+    // unless LAZY mode has to load partitions first
+    private CalendarState stateCovering(LocalDate from, LocalDate to) {
+        CalendarState s = state.get();
+        if (s.covers(from, to)) return s;
+        writeLock.lock();
+        try {
+            ensureResident(from, to);
+            publish();
+            return state.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // --- Persistence ---
+    // Called with any write that fails on the background thread
+    public void setPersistenceErrorListener(java.util.function.Consumer<Exception> listener) {
+        persistence.setFailureListener(listener);
+    }
+
+    // Waits for queued writes and syncs the journal; call before exiting
+    public void shutdown() {
+        reminders.shutdown();
+        backupExecutor.shutdown(); // a backup cut off at exit leaves only its .tmp file behind
+        persistence.flush();
         try {
-            events = fileHandler.loadEvents();
+            fileHandler.syncJournal();
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    private void queueSnapshotWrite() {
+        List<Event> snapshot = new ArrayList<>(events);
+        persistence.submit("snapshot", () -> fileHandler.saveEvents(snapshot));
+    }
+
+    private void queueJournalWrite(PersistenceWorker.IoTask record) {
+        persistence.submit(null, record);
+        if (!compactionQueued && fileHandler.journalNeedsCompaction()) {
+            // Queued behind the records already submitted, so the rotated log matches the copy
+            compactionQueued = true;
+            List<Event> snapshot = new ArrayList<>(events);
+            persistence.submit("compaction", () -> {
+                compactionQueued = false;
+                fileHandler.compactJournalInBackground(snapshot);
+            });
+        }
+    }
+
+    // Rewrites each month from memory. A month that is not resident is loaded first, so the
+    // events on disk that this change did not touch are written back instead of dropped.
+    private void queuePartitionWrites(Set<YearMonth> months) {
+        for (YearMonth m : months) {
+            // Callers load every month they change first; one that is still not resident only
+            // has part of its events in memory, and writing those would drop the rest
+            if (!partitions.isResident(m)) {
+                persistence.report(new IOException("Changes to " + m + " were not saved: its partition is not loaded"));
+                continue;
+            }
+            List<Event> monthEvents = new ArrayList<>();
+            for (Event e : events) {
+                if (MonthPartitionStore.homeOf(e).equals(m)) monthEvents.add(e);
+            }
+            persistence.submit(m, () -> partitions.write(m, monthEvents));
+        }
+    }
+
     // --- State Getters/Setters ---
-    public ViewMode getMode() { return currentMode; }
-    public void setMode(ViewMode mode) { this.currentMode = mode; }
+    public ViewMode getMode() { return state.get().mode; }
+    public void setMode(ViewMode mode) {
+        writeLock.lock();
+        try {
+            this.currentMode = mode;
+        } finally {
+            publish();
+            writeLock.unlock();
+        }
+    }
 
-    public TimeScale getScale() { return currentScale; }
-    public void setScale(TimeScale scale) { this.currentScale = scale; }
+    public TimeScale getScale() { return state.get().scale; }
+    public void setScale(TimeScale scale) {
+        writeLock.lock();
+        try {
+            this.currentScale = scale;
+            refreshResidentWindow();
+            prefetchAdjacent();
+        } finally {
+            publish();
+            writeLock.unlock();
+        }
+    }
 
-    public LocalDate getReferenceDate() { return referenceDate; }
-    public void setReferenceDate(LocalDate date) { this.referenceDate = date; }
+    public LocalDate getReferenceDate() { return state.get().referenceDate; }
+    public void setReferenceDate(LocalDate date) {
+        writeLock.lock();
+        try {
+            this.referenceDate = date;
+            refreshResidentWindow();
+            prefetchAdjacent();
+        } finally {
+            publish();
+            writeLock.unlock();
+        }
+    }
 
     // --- Date Navigation Logic ---
     public void navigate(int direction) {
+        writeLock.lock();
+        try {
+            referenceDate = step(referenceDate, direction);
+            refreshResidentWindow();
+            prefetchAdjacent();
+        } finally {
+            publish();
+            writeLock.unlock();
+        }
+    }
+
+    private LocalDate step(LocalDate date, int direction) {
         switch (currentScale) {
-            case DAY: referenceDate = referenceDate.plusDays(direction); break;
-            case WEEK: referenceDate = referenceDate.plusWeeks(direction); break;
-            case MONTH: referenceDate = referenceDate.plusMonths(direction); break;
+            case DAY: return date.plusDays(direction);
+            case WEEK: return date.plusWeeks(direction);
+            default: return date.plusMonths(direction);
+        }
+    }
+
+    // Builds the previous and next ranges of the current scale in the background,
+    // so the next navigation finds its snapshot ready
+    private void prefetchAdjacent() {
+        LocalDate[] previous = rangeFor(step(referenceDate, -1));
+        LocalDate[] current = rangeFor(referenceDate);
+        LocalDate[] next = rangeFor(step(referenceDate, 1));
+        prefetcher.retain(Arrays.asList(previous, current, next));
+        for (LocalDate[] range : new LocalDate[][]{previous, next}) {
+            ensureResident(range[0], range[1]);
+            prefetcher.prefetch(range[0], range[1], index.query(range[0], range[1]));
+        }
+    }
+
+    // Drops cached snapshots the event's old or new span touches
+    private void invalidateSnapshots(LocalDate[] span) {
+        if (span != null) prefetcher.invalidate(span[0], span[1]);
+    }
+
+    // --- Lazy Partition Residency ---
+    public boolean isLazy() { return storageMode == StorageMode.LAZY; }
+    public int getResidentPartitionCount() { return isLazy() ? partitions.getResidentPartitionCount() : 0; }
+    public int getTotalPartitionCount() { return isLazy() ? partitions.getPartitionCount() : 0; }
+    public int getResidentEventCount() { return state.get().getEventCount(); }
+
+    // Keeps exactly the partitions for the visible range (plus the prefetch margin) in memory
+    private void refreshResidentWindow() {
+        if (!isLazy()) return;
+        LocalDate[] visible = rangeFor(referenceDate);
+        YearMonth from = YearMonth.from(visible[0]).minusMonths(PREFETCH_MONTHS);
+        YearMonth to = YearMonth.from(visible[1]).plusMonths(PREFETCH_MONTHS);
+        if (from.equals(windowStart) && to.equals(windowEnd)) return;
+
+        Set<YearMonth> needed = partitions.monthsCovering(from.atDay(1), to.atEndOfMonth());
+        Set<YearMonth> unload = new HashSet<>(partitions.getResidentMonths());
+        unload.removeAll(needed);
+        unload.removeIf(persistence::isPending); // keep until its queued write lands, dropped on a later refresh
+        if (!unload.isEmpty()) {
+            for (Event e : new ArrayList<>(events)) {
+                if (!unload.contains(MonthPartitionStore.homeOf(e))) continue;
+                removeResident(e);
+                index.remove(e);
+                searchIndex.remove(e);
+                columns.release(e);
+            }
+            for (YearMonth m : unload) partitions.markUnloaded(m);
+        }
+        try {
+            loadPartitions(needed);
+            windowStart = from;
+            windowEnd = to;
+        } catch (IOException ex) {
+            // The months that failed stay out of view; the next navigation tries them again
+            persistence.report(ex);
+            windowStart = windowEnd = null;
+        }
+    }
+
+    // Makes sure everything that can occur in [from, to] is resident; used for queries and
+    // prefetches that reach outside the visible window. Extra partitions drop out on the next navigation.
+    private void ensureResident(LocalDate from, LocalDate to) {
+        if (!isLazy()) return;
+        if (windowStart != null && !YearMonth.from(from).isBefore(windowStart) && !YearMonth.from(to).isAfter(windowEnd)) return;
+        try {
+            loadPartitions(partitions.monthsCovering(from, to));
+        } catch (IOException ex) {
+            persistence.report(ex);
+        }
+    }
+
+    // Stops at the first partition that cannot be read; it stays non-resident, so nothing
+    // rewrites it from what little of it is in memory
+    private void loadPartitions(Collection<YearMonth> months) throws IOException {
+        for (YearMonth m : months) {
+            if (partitions.isResident(m)) continue;
+            for (Event loaded : partitions.load(m)) {
+                if (byId.containsKey(loaded.getId())) continue; // first one wins on duplicate ids
+                Event e = columns.adopt(loaded);
+                addResident(e);
+                index.add(e);
+                searchIndex.add(e);
+            }
         }
     }
 
+    // --- Resident Event Bookkeeping ---
+    // byId finds an event and positions its index in the list, so adding, replacing and
+    // removing one never scans the list
+    private void addResident(Event e) {
+        int slot = e.getSlot();
+        if (slot >= positions.length) positions = Arrays.copyOf(positions, Math.max(slot + 1, positions.length * 2));
+        positions[slot] = events.size();
+        events.add(e);
+        byId.put(e.getId(), e);
+        nextId = Math.max(nextId, e.getId() + 1);
+    }
+
+    private void removeResident(Event e) {
+        int position = positions[e.getSlot()];
+        Event last = events.remove(events.size() - 1);
+        if (last != e) {
+            events.set(position, last);
+            positions[last.getSlot()] = position;
+        }
+        byId.remove(e.getId());
+    }
+
+    // Replaces the resident events with freshly loaded ones, copied into new columns.
+    // The old columns live on for as long as anything still holds their events.
+    private void resetResident(List<Event> loaded) {
+        columns = new EventColumns();
+        events = new ArrayList<>(loaded.size());
+        byId.clear();
+        positions = new int[0];
+        for (Event e : loaded) {
+            if (!byId.containsKey(e.getId())) addResident(columns.adopt(e)); // first one wins on duplicate ids
+        }
+    }
+
+    // Every event, including the ones in non-resident partitions (read once, not kept).
+    // Only copying the resident set holds the writer lock; the partitions are read after it.
+    private List<Event> allEvents() {
+        List<Event> all;
+        Set<YearMonth> resident;
+        writeLock.lock();
+        try {
+            all = new ArrayList<>(events);
+            if (!isLazy()) return all;
+            resident = partitions.getResidentMonths();
+        } finally {
+            writeLock.unlock();
+        }
+        for (YearMonth m : partitions.getAllMonths()) {
+            if (resident.contains(m)) continue;
+            try {
+                all.addAll(partitions.read(m));
+            } catch (Exception ex) {
+                ex.printStackTrace();
+            }
+        }
+        return all;
+    }
+
     // --- Event Logic ---
     public List<Event> getEventsOnDate(LocalDate date) {
-        return events.stream().filter(e -> e.occursOn(date)).collect(Collectors.toList());
+        return stateCovering(date, date).query(date, date).stream().filter(e -> e.occursOn(date)).collect(Collectors.toList());
     }
 
-    public void addOrUpdateEvent(Event event) {
-        events.removeIf(e -> e.getId() == event.getId());
-        events.add(event);
-        save();
+    public void addOrUpdateEvent(Event edited) {
+        writeLock.lock();
+        try {
+            // The target partition, and the one holding the current version, have to be
+            // in memory before they can be rewritten; if either cannot be read the edit is refused
+            Set<YearMonth> touched = new HashSet<>();
+            if (isLazy()) {
+                try {
+                    storedEvent(edited.getId(), null);
+                    touched.add(MonthPartitionStore.homeOf(edited));
+                    loadPartitions(touched);
+                } catch (IOException ex) {
+                    persistence.report(ex);
+                    return;
+                }
+            }
+
+            Event event = upsertResident(edited, touched);
+            prefetchAdjacent();
+
+            switch (storageMode) {
+                case JOURNAL: queueJournalWrite(() -> fileHandler.appendUpsert(event)); break;
+                case LAZY: queuePartitionWrites(touched); break;
+                default: queueSnapshotWrite();
+            }
+        } finally {
+            publish();
+            writeLock.unlock();
+        }
     }
 
-    public void deleteEvent(Event event) {
-        events.remove(event);
-        save();
+    // Inserts or replaces many events at once: the indexes are updated per event, but the
+    // adjacent ranges are rebuilt once and the whole batch reaches the disk in a single write
+    // Readers keep seeing the previous state until the whole batch is published at once.
+    public void addOrUpdateEvents(Collection<Event> batch) {
+        if (batch.isEmpty()) return;
+        writeLock.lock();
+        try {
+            Set<YearMonth> touched = new HashSet<>();
+            if (isLazy()) {
+                try {
+                    for (Event e : batch) {
+                        storedEvent(e.getId(), null);
+                        touched.add(MonthPartitionStore.homeOf(e));
+                    }
+                    loadPartitions(touched);
+                } catch (IOException ex) {
+                    persistence.report(ex);
+                    return;
+                }
+            }
+
+            List<Event> stored = new ArrayList<>(batch.size());
+            for (Event edited : batch) stored.add(upsertResident(edited, touched));
+            prefetchAdjacent();
+
+            switch (storageMode) {
+                case JOURNAL: queueJournalWrite(() -> fileHandler.appendUpserts(stored)); break;
+                case LAZY: queuePartitionWrites(touched); break;
+                default: queueSnapshotWrite();
+            }
+        } finally {
+            publish();
+            writeLock.unlock();
+        }
     }
 
-    public int getNextEventId() {
-        return events.stream().mapToInt(Event::getId).max().orElse(0) + 1;
+    // Swaps the event in for whatever is stored under its id; returns the stored copy
+    private Event upsertResident(Event edited, Set<YearMonth> touched) {
+        Event event = columns.adopt(edited); // copied into the controller's columns unless already there
+        Event old = byId.get(event.getId());
+        if (old != null) {
+            removeResident(old);
+            invalidateSnapshots(index.getIndexedSpan(old));
+            index.remove(old);
+            touched.add(MonthPartitionStore.homeOf(old));
+            if (old != event) {
+                searchIndex.remove(old); // add() below re-indexes the same object in place
+                columns.release(old);
+            }
+        }
+        addResident(event);
+        index.add(event);
+        searchIndex.add(event);
+        invalidateSnapshots(index.getIndexedSpan(event));
+        reminders.schedule(event);
+        return event;
     }
 
-    private void save() {
+    // Deletes whatever is stored under the event's id, so an outdated copy of it still deletes
+    // the current version. Memory and disk are only touched when there is something to delete.
+    public void deleteEvent(Event event) {
+        writeLock.lock();
         try {
-            fileHandler.saveEvents(events);
-        } catch (Exception e) {
-            e.printStackTrace();
+            Event stored;
+            try {
+                stored = storedEvent(event.getId(), MonthPartitionStore.homeOf(event));
+            } catch (IOException ex) {
+                persistence.report(ex);
+                return;
+            }
+            if (stored == null) return;
+            int id = stored.getId();
+            YearMonth home = MonthPartitionStore.homeOf(stored);
+            dropResident(stored);
+            prefetchAdjacent();
+            reminders.cancel(id);
+
+            switch (storageMode) {
+                case JOURNAL: queueJournalWrite(() -> fileHandler.appendDelete(id)); break;
+                case LAZY: queuePartitionWrites(Collections.singleton(home)); break;
+                default: queueSnapshotWrite();
+            }
+        } finally {
+            publish();
+            writeLock.unlock();
+        }
+    }
+
+    // The event stored under the id, or null. In LAZY mode a non-resident one is loaded along
+    // with its partition first (trying the likely month before looking the id up), so an edit
+    // or delete can rewrite that month without losing its other events. Throws if a partition
+    // it needs cannot be read, as the event may be in it.
+    private Event storedEvent(int id, YearMonth likely) throws IOException {
+        Event e = byId.get(id);
+        if (e != null || !isLazy() || id > partitions.getMaxId()) return e;
+        if (likely != null) {
+            loadPartitions(Collections.singleton(likely));
+            e = byId.get(id);
+            if (e != null) return e;
         }
+        YearMonth home = partitions.findHome(id);
+        if (home != null) loadPartitions(Collections.singleton(home));
+        return byId.get(id);
+    }
+
+    private void dropResident(Event event) {
+        removeResident(event);
+        invalidateSnapshots(index.getIndexedSpan(event));
+        index.remove(event);
+        searchIndex.remove(event);
+        columns.release(event);
+    }
+
+    // Not reserved: the id stays free until an event is actually saved under it
+    public int getNextEventId() {
+        return state.get().nextEventId;
     }
 
     // --- Range Calculations ---
     public LocalDate getStartOfRange() {
-        switch (currentScale) {
-            case DAY: return referenceDate;
-            case WEEK: return referenceDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
-            default: return referenceDate.withDayOfMonth(1);
-        }
+        return state.get().getStartOfRange();
     }
 
     public LocalDate getEndOfRange() {
-        switch (currentScale) {
-            case DAY: return referenceDate;
-            case WEEK: return getStartOfRange().plusDays(6);
-            default: return referenceDate.with(TemporalAdjusters.lastDayOfMonth());
-        }
+        return state.get().getEndOfRange();
+    }
+
+    // {first day, last day} shown for the given reference date at the writer's current scale
+    private LocalDate[] rangeFor(LocalDate date) {
+        return CalendarState.rangeFor(currentScale, date);
     }
 
     // --- Filter Logic for List View ---
     public List<Event> getEventsInRange() {
-        LocalDate start = getStartOfRange();
-        LocalDate end = getEndOfRange();
-        return events.stream()
+        CalendarState visible = state.get();
+        LocalDate start = visible.getStartOfRange();
+        LocalDate end = visible.getEndOfRange();
+        return stateCovering(start, end).query(start, end).stream()
                 .filter(e -> occursInRange(e, start, end))
                 .sorted(Comparator.comparing(Event::getStart))
                 .collect(Collectors.toList());
     }
 
-    private boolean occursInRange(Event e, LocalDate start, LocalDate end) {
-        // Check original occurrence
-        if (!e.getStart().toLocalDate().isBefore(start) &&
-                !e.getStart().toLocalDate().isAfter(end)) {
-            return true;
-        }
-
-        // Check recurring occurrences
-        if (!"NONE".equalsIgnoreCase(e.getRecurType())) {
-            for (int i = 1; i <= e.getRecurCount(); i++) {
-                LocalDate occurrence = e.getOccurrence(i).toLocalDate();
-                if (!occurrence.isBefore(start) && !occurrence.isAfter(end)) {
-                    return true;
-                }
+    // --- Range Materialization ---
+    // Expand every occurrence starting within [start, end] in one pass over the index,
+    // bucketed per day so a whole month or week can be drawn from a single scan
+    public RangeSnapshot materializeRange(LocalDate start, LocalDate end) {
+        RangeSnapshot cached = prefetcher.get(start, end);
+        if (cached != null) return cached;
+
+        CalendarState s = stateCovering(start, end);
+        RangeSnapshot snapshot = RangeSnapshot.build(start, end, s.query(start, end), occurrenceCache);
+        // Keep the visible range too, so stepping back to it is instant. Only if nothing was
+        // published since: an edit in between may already have invalidated this range, and
+        // a busy writer is not waited for.
+        if (start.equals(s.getStartOfRange()) && end.equals(s.getEndOfRange()) && writeLock.tryLock()) {
+            try {
+                if (state.get() == s) prefetcher.put(snapshot);
+            } finally {
+                writeLock.unlock();
             }
         }
-        return false;
+        return snapshot;
+    }
+
+    private boolean occursInRange(Event e, LocalDate start, LocalDate end) {
+        return e.occursBetween(start, end);
     }
 
     // --- Search Logic ---
+    // Candidate events below which a date search expands on the calling thread
+    private static final int PARALLEL_EXPANSION_MIN = 10_000;
+
+    // Occurrences of every matching event in date order, expanded only as they are read
+    public SearchCursor openSearch(String query) {
+        if (query == null || query.trim().isEmpty()) return new SearchCursor(new ArrayList<>(), null, null);
+        return new SearchCursor(findMatchingEvents(query), null, null);
+    }
+
     public List<SearchMatch> searchEvents(String query) {
-        if (query == null || query.trim().isEmpty()) return new ArrayList<>();
-        List<SearchMatch> results = new ArrayList<>();
-        String lowQuery = query.toLowerCase();
+        return openSearch(query).drain();
+    }
+
+    // Events whose title or description contains the query, ignoring case.
+    // The search index is only locked for the lookup; expanding the matches is lock-free.
+    private List<Event> findMatchingEvents(String query) {
+        if (!isLazy()) return searchIndex.search(query);
 
-        for (Event e : events) {
+        // Most partitions are on disk, so lazy mode still scans them
+        String lowQuery = query.toLowerCase();
+        List<Event> matches = new ArrayList<>();
+        for (Event e : allEvents()) {
             if (e.getTitle().toLowerCase().contains(lowQuery) ||
                     e.getDescription().toLowerCase().contains(lowQuery)) {
-
-                // Add original occurrence
-                results.add(new SearchMatch(e.getStart().toLocalDate(), e));
-
-                // Add all recurring occurrences
-                if (!"NONE".equalsIgnoreCase(e.getRecurType())) {
-                    for (int i = 1; i <= e.getRecurCount(); i++) {
-                        results.add(new SearchMatch(e.getOccurrence(i).toLocalDate(), e));
-                    }
-                }
+                matches.add(e);
             }
         }
-        return results;
+        return matches;
     }
 
-    public List<SearchMatch> searchEventsByDate(LocalDate start, LocalDate end) {
-        List<SearchMatch> results = new ArrayList<>();
-
-        for (Event e : events) {
-            LocalDate originalDate = e.getStart().toLocalDate();
-            if (!originalDate.isBefore(start) && !originalDate.isAfter(end)) {
-                results.add(new SearchMatch(originalDate, e));
-            }
+    // Occurrences starting within [start, end] in date order, expanded only as they are read
+    public SearchCursor openSearchByDate(LocalDate start, LocalDate end) {
+        return new SearchCursor(stateCovering(start, end).query(start, end), start, end);
+    }
 
-            if (!"NONE".equalsIgnoreCase(e.getRecurType())) {
-                for (int i = 1; i <= e.getRecurCount(); i++) {
-                    LocalDate occurrenceDate = e.getOccurrence(i).toLocalDate();
-                    // Check if this specific occurrence falls within the search range
-                    if (!occurrenceDate.isBefore(start) && !occurrenceDate.isAfter(end)) {
-                        results.add(new SearchMatch(occurrenceDate, e));
-                    }
-                }
-            }
-        }
+    // The full list at once, for range reports
+    public List<SearchMatch> searchEventsByDate(LocalDate start, LocalDate end) {
+        return expandAll(stateCovering(start, end).query(start, end), start, end);
+    }
 
-        // Optional: Sort results by date
-        results.sort(Comparator.comparing(match -> match.date));
-        return results;
+    // Every occurrence of the candidates in [start, end], in SearchCursor order; big candidate
+    // sets are expanded across cores
+    static List<SearchMatch> expandAll(List<Event> candidates, LocalDate start, LocalDate end) {
+        if (candidates.size() < PARALLEL_EXPANSION_MIN) return new SearchCursor(candidates, start, end).drain();
+        return ParallelExpander.expand(candidates, start, end);
     }
 
     // Fix Search Date for Recurring Event
@@ -177,32 +641,170 @@ public class CalendarController {
         }
     }
     // --- Conflict Logic ---
+    // Checks the event against everything else across its whole series
     public boolean hasConflict(Event e) {
-        List<Event> sameDay = getEventsOnDate(e.getStart().toLocalDate());
-        return checkForConflictOnDate(sameDay);
+        return hasConflict(e, e.getStart().toLocalDate(), e.getSpanEnd().toLocalDate());
+    }
+
+    // Checks the event's occurrences inside [from, to] against every other event's occurrences there
+    public boolean hasConflict(Event e, LocalDate from, LocalDate to) {
+        CalendarState s = stateCovering(from, to);
+        List<Occurrence> subject = new ArrayList<>();
+        expandOverlapping(e, from, to, subject);
+        if (subject.isEmpty()) return false;
+
+        List<Occurrence> others = new ArrayList<>();
+        for (Event other : s.query(from, to)) {
+            if (other.getId() != e.getId()) expandOverlapping(other, from, to, others);
+        }
+        return ConflictDetector.conflictsWith(subject, others);
     }
 
     public boolean checkForConflictOnDate(List<Event> dayEvents) {
-        for (int i = 0; i < dayEvents.size(); i++) {
-            for (int j = i + 1; j < dayEvents.size(); j++) {
-                Event a = dayEvents.get(i);
-                Event b = dayEvents.get(j);
-                if (a.getStart().isBefore(b.getEnd()) && a.getEnd().isAfter(b.getStart())) {
-                    return true;
-                }
+        List<Occurrence> occurrences = new ArrayList<>();
+        for (Event e : dayEvents) occurrences.add(new Occurrence(e, 0, e.getStart(), e.getEnd()));
+        return ConflictDetector.hasAnyConflict(occurrences);
+    }
+
+    // Every pair of overlapping occurrences whose overlap falls within [from, to]
+    public List<ConflictDetector.Conflict> getConflicts(LocalDate from, LocalDate to) {
+        List<Occurrence> occurrences = new ArrayList<>();
+        for (Event e : stateCovering(from, to).query(from, to)) {
+            expandOverlapping(e, from, to, occurrences);
+        }
+
+        LocalDateTime windowStart = from.atStartOfDay();
+        LocalDateTime windowEnd = to.plusDays(1).atStartOfDay();
+        List<ConflictDetector.Conflict> conflicts = new ArrayList<>();
+        for (ConflictDetector.Conflict c : ConflictDetector.findConflicts(occurrences)) {
+            if (c.getOverlapStart().isBefore(windowEnd) && c.getOverlapEnd().isAfter(windowStart)) {
+                conflicts.add(c);
             }
         }
-        return false;
+        return conflicts;
     }
 
+    // Occurrences whose time span overlaps [from, to], including ones that started earlier and run into it
+    private void expandOverlapping(Event e, LocalDate from, LocalDate to, List<Occurrence> out) {
+        LocalDateTime windowStart = from.atStartOfDay();
+        LocalDateTime windowEnd = to.plusDays(1).atStartOfDay();
+        Duration length = Duration.between(e.getStart(), e.getEnd());
+
+        OccurrenceCache.Window window = occurrenceCache.get(e, windowStart.minus(length).toLocalDate(), to);
+        for (int i = 0; i < window.size(); i++) {
+            LocalDateTime occurrenceStart = window.getStart(i);
+            LocalDateTime occurrenceEnd = occurrenceStart.plus(length);
+            if (occurrenceEnd.isAfter(windowStart) || !occurrenceStart.isBefore(windowStart)) {
+                out.add(new Occurrence(e, window.firstIndex + i, occurrenceStart, occurrenceEnd));
+            }
+        }
+    }
+
+    // Hit, miss and eviction counters live on the cache itself
+    public OccurrenceCache getOccurrenceCache() { return occurrenceCache; }
+
     // --- Backup/Restore ---
+    // Writes the archive on the backup thread from a copy of the current events, so edits
+    // carry on meanwhile (and land in the next backup). Level is a deflate level, 0 = store only.
+    public CompletableFuture<BackupWriter.Result> startBackup(String filename, BackupWriter.Kind kind, int level,
+                                                               BackupWriter.ProgressListener listener) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return backups.write(allEvents(), filename, kind, level, listener);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, backupExecutor);
+    }
+
+    // Writes every occurrence in [from, to] to a CSV report on the backup thread; completes
+    // with the number of rows
+    public CompletableFuture<Integer> startRangeReport(LocalDate from, LocalDate to, String filename) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return RangeReport.write(fileHandler, searchEventsByDate(from, to), filename);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, backupExecutor);
+    }
+
+    // Full backup at the default level, on the calling thread
     public void performBackup(String filename) throws Exception {
-        fileHandler.backup(filename);
+        backups.write(allEvents(), filename, BackupWriter.Kind.FULL, java.util.zip.Deflater.DEFAULT_COMPRESSION, null);
     }
 
+    // Appending imports the archive through addOrUpdateEvents, so an event whose id already
+    // exists is replaced instead of duplicated; replacing reloads everything from the archive.
+    // An incremental archive can only be appended: the months it carries replace the current ones.
     public void performRestore(String filename, boolean append) throws Exception {
-        fileHandler.restore(filename, append);
-        events = fileHandler.loadEvents();
+        BackupWriter.Manifest manifest = BackupWriter.readManifest(filename);
+        if (manifest != null && manifest.isPartial()) {
+            if (!append) throw new IOException("This is an incremental backup: restore its full backup, then append this one");
+            replaceMonths(manifest.getIncludedMonths(), fileHandler.readBackup(filename));
+            return;
+        }
+        if (append) {
+            addOrUpdateEvents(fileHandler.readBackup(filename));
+            return;
+        }
+        writeLock.lock();
+        try {
+            persistence.flush();
+            fileHandler.restore(filename, false);
+            prefetcher.clear();
+            if (isLazy()) {
+                partitions.rebuild(fileHandler.loadEvents());
+                resetResident(new ArrayList<>());
+                nextId = partitions.getMaxId() + 1;
+                index.clear();
+                searchIndex.clear();
+                windowStart = windowEnd = null;
+                refreshResidentWindow();
+            } else {
+                resetResident(fileHandler.loadEvents());
+                index.rebuild(events);
+                searchIndex.rebuild(events);
+            }
+            prefetchAdjacent();
+            reminders.rebuild(allEvents());
+        } finally {
+            publish();
+            writeLock.unlock();
+        }
+    }
+
+    // Makes the given months hold exactly the given events: whatever else is homed there is
+    // deleted, then the events are upserted as one batch
+    private void replaceMonths(Set<YearMonth> months, List<Event> replacement) throws IOException {
+        writeLock.lock();
+        try {
+            if (isLazy()) loadPartitions(months); // a month that cannot be read fails the restore before anything changes
+            IntHashMap<Event> kept = new IntHashMap<>();
+            for (Event e : replacement) kept.put(e.getId(), e);
+
+            List<Integer> deleted = new ArrayList<>();
+            for (Event e : new ArrayList<>(events)) {
+                if (!months.contains(MonthPartitionStore.homeOf(e)) || kept.containsKey(e.getId())) continue;
+                dropResident(e);
+                reminders.cancel(e.getId());
+                deleted.add(e.getId());
+            }
+            if (!deleted.isEmpty()) {
+                switch (storageMode) {
+                    case JOURNAL: queueJournalWrite(() -> {
+                        for (int id : deleted) fileHandler.appendDelete(id);
+                    }); break;
+                    case LAZY: queuePartitionWrites(months); break;
+                    default: queueSnapshotWrite();
+                }
+            }
+            if (replacement.isEmpty()) prefetchAdjacent();
+            addOrUpdateEvents(replacement);
+        } finally {
+            publish();
+            writeLock.unlock();
+        }
     }
 
     // Overloaded version for backward compatibility
@@ -211,24 +813,25 @@ public class CalendarController {
     }
 
     // --- Notification Logic ---
+    // Called on the reminder thread when an occurrence is REMINDER_LEAD away from starting
+    public void setReminderListener(java.util.function.Consumer<Occurrence> listener) {
+        reminders.setListener(listener);
+    }
+
+    public ReminderScheduler getReminders() { return reminders; }
+
     public List<Event> getUpcomingEvents(int hoursAhead) {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime future = now.plusHours(hoursAhead);
 
-        return events.stream()
+        return stateCovering(now.toLocalDate(), future.toLocalDate()).query(now.toLocalDate(), future.toLocalDate()).stream()
                 .filter(e -> {
-                    // Check if event starts in the next X hours
-                    if (e.getStart().isAfter(now) && e.getStart().isBefore(future)) {
-                        return true;
-                    }
-                    // Check recurring occurrences
-                    if (!"NONE".equalsIgnoreCase(e.getRecurType())) {
-                        for (int i = 1; i <= e.getRecurCount(); i++) {
-                            LocalDateTime occurrence = e.getOccurrence(i);
-                            if (occurrence.isAfter(now) && occurrence.isBefore(future)) {
-                                return true;
-                            }
-                        }
+                    // Only the occurrences from today onwards can fall in the next X hours
+                    OccurrenceCache.Window window = occurrenceCache.get(e, now.toLocalDate(), future.toLocalDate());
+                    for (int i = 0; i < window.size(); i++) {
+                        LocalDateTime occurrence = window.getStart(i);
+                        if (!occurrence.isBefore(future)) break;
+                        if (occurrence.isAfter(now)) return true;
                     }
                     return false;
                 })
@@ -244,10 +847,11 @@ public class CalendarController {
         sb.append("=== Week of ").append(weekStart).append(" ===\n\n");
 
         String[] dayNames = {"Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat"};
+        RangeSnapshot week = materializeRange(weekStart, weekEnd);
 
         for (int i = 0; i < 7; i++) {
             LocalDate day = weekStart.plusDays(i);
-            List<Event> dayEvents = getEventsOnDate(day);
+            List<Event> dayEvents = week.getEvents(day);
 
             sb.append(dayNames[i]).append(" ").append(day).append(": ");
 
@@ -258,7 +862,7 @@ public class CalendarController {
                 for (Event e : dayEvents) {
                     sb.append("  • ").append(e.getStart().toLocalTime())
                             .append(" - ").append(e.getTitle());
-                    if (!"NONE".equals(e.getRecurType())) {
+                    if (e.getFrequency() != Recurrence.Frequency.NONE) {
                         sb.append(" [").append(e.getRecurType()).append("]");
                     }
                     sb.append("\n");
@@ -0,0 +1,207 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+// Month/week grid painted directly instead of one JButton per day.
+// Navigation only swaps the model (dates, counts, conflict flags); cells whose content
+// did not change are not repainted, and clicks are mapped to a day by coordinate.
+public class CalendarGrid extends JComponent {
+    private static final String[] DAY_NAMES = {"Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat"};
+    private static final int GAP = 2;
+    private static final int TODAY_BORDER_WIDTH = 5;
+
+    // --- Model ---
+    private LocalDate[] dates = new LocalDate[0]; // one per cell, null for padding
+    private int[] counts = new int[0];
+    private boolean[] conflicts = new boolean[0];
+    private LocalDate today;
+
+    // --- Style ---
+    private final Font dayFont;
+    private final Font headerFont;
+    private final Font countFont;
+    private final Color eventBg, conflictBg, todayBorder;
+    private final Color cellBg = UIManager.getColor("Button.background") != null
+            ? UIManager.getColor("Button.background") : new Color(238, 238, 238);
+
+    // Text metrics are fixed per font, so measure once
+    private FontMetrics dayMetrics, headerMetrics, countMetrics;
+    private final int[] dayLabelWidths = new int[32];
+
+    private Consumer<LocalDate> dayListener;
+
+    public CalendarGrid(Font dayFont, Font headerFont, Color eventBg, Color conflictBg, Color todayBorder) {
+        this.dayFont = dayFont;
+        this.headerFont = headerFont;
+        this.countFont = dayFont.deriveFont(Font.PLAIN, 10f);
+        this.eventBg = eventBg;
+        this.conflictBg = conflictBg;
+        this.todayBorder = todayBorder;
+        setOpaque(true);
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                LocalDate date = dateAt(e.getX(), e.getY());
+                if (date != null && dayListener != null) dayListener.accept(date);
+            }
+        });
+    }
+
+    public void setDayListener(Consumer<LocalDate> listener) {
+        this.dayListener = listener;
+    }
+
+    // Shows `length` days from `first`, after `leadingBlanks` empty cells
+    public void setRange(LocalDate first, int length, int leadingBlanks, RangeSnapshot snapshot) {
+        int cells = leadingBlanks + length;
+        LocalDate[] newDates = new LocalDate[cells];
+        int[] newCounts = new int[cells];
+        boolean[] newConflicts = new boolean[cells];
+        for (int i = 0; i < length; i++) {
+            LocalDate date = first.plusDays(i);
+            newDates[leadingBlanks + i] = date;
+            newCounts[leadingBlanks + i] = snapshot.getCount(date);
+            newConflicts[leadingBlanks + i] = newCounts[leadingBlanks + i] > 0 && snapshot.hasConflict(date);
+        }
+        LocalDate newToday = LocalDate.now();
+
+        boolean relayout = rowsFor(cells) != rowsFor(dates.length);
+        LocalDate[] oldDates = dates;
+        int[] oldCounts = counts;
+        boolean[] oldConflicts = conflicts;
+        LocalDate oldToday = today;
+        dates = newDates;
+        counts = newCounts;
+        conflicts = newConflicts;
+        today = newToday;
+
+        if (relayout || !isShowing()) {
+            repaint();
+            return;
+        }
+        // Same shape: only touch the cells that look different
+        int max = Math.max(cells, oldDates.length);
+        for (int i = 0; i < max; i++) {
+            LocalDate before = i < oldDates.length ? oldDates[i] : null;
+            LocalDate after = i < cells ? newDates[i] : null;
+            boolean same = before == null ? after == null
+                    : after != null && before.getDayOfMonth() == after.getDayOfMonth()
+                    && oldCounts[i] == newCounts[i] && oldConflicts[i] == newConflicts[i]
+                    && before.equals(oldToday) == after.equals(newToday);
+            if (!same) repaint(cellBounds(i));
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) return super.getPreferredSize();
+        return new Dimension(7 * 100, headerHeight() + rowsFor(dates.length) * 80);
+    }
+
+    // --- Painting ---
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        measure(g2);
+
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        g2.setColor(getBackground() != null ? getBackground() : UIManager.getColor("Panel.background"));
+        g2.fill(clip);
+
+        int header = headerHeight();
+        if (clip.y < header) {
+            g2.setFont(headerFont);
+            g2.setColor(getForeground());
+            for (int c = 0; c < 7; c++) {
+                Rectangle r = columnBounds(c, 0, header);
+                int x = r.x + (r.width - headerMetrics.stringWidth(DAY_NAMES[c])) / 2;
+                int y = r.y + (r.height - headerMetrics.getHeight()) / 2 + headerMetrics.getAscent();
+                g2.drawString(DAY_NAMES[c], x, y);
+            }
+        }
+
+        for (int i = 0; i < dates.length; i++) {
+            if (dates[i] == null) continue;
+            Rectangle r = cellBounds(i);
+            if (r.intersects(clip)) paintCell(g2, i, r);
+        }
+    }
+
+    private void paintCell(Graphics2D g2, int i, Rectangle r) {
+        int count = counts[i];
+        g2.setColor(count == 0 ? cellBg : conflicts[i] ? conflictBg : eventBg);
+        g2.fillRect(r.x, r.y, r.width, r.height);
+
+        if (dates[i].equals(today)) {
+            g2.setColor(todayBorder);
+            for (int k = 0; k < TODAY_BORDER_WIDTH; k++) g2.drawRect(r.x + k, r.y + k, r.width - 1 - 2 * k, r.height - 1 - 2 * k);
+        } else {
+            g2.setColor(Color.GRAY);
+            g2.drawRect(r.x, r.y, r.width - 1, r.height - 1);
+        }
+
+        int day = dates[i].getDayOfMonth();
+        String countLabel = count > 0 ? "● " + count + " Event(s)" : null;
+        int textHeight = dayMetrics.getHeight() + (countLabel != null ? countMetrics.getHeight() : 0);
+        int y = r.y + (r.height - textHeight) / 2;
+
+        g2.setColor(getForeground());
+        g2.setFont(dayFont);
+        g2.drawString(Integer.toString(day), r.x + (r.width - dayLabelWidths[day]) / 2, y + dayMetrics.getAscent());
+        if (countLabel != null) {
+            g2.setFont(countFont);
+            y += dayMetrics.getHeight();
+            g2.drawString(countLabel, r.x + (r.width - countMetrics.stringWidth(countLabel)) / 2, y + countMetrics.getAscent());
+        }
+    }
+
+    private void measure(Graphics2D g2) {
+        if (dayMetrics != null) return;
+        dayMetrics = g2.getFontMetrics(dayFont);
+        headerMetrics = g2.getFontMetrics(headerFont);
+        countMetrics = g2.getFontMetrics(countFont);
+        for (int d = 1; d <= 31; d++) dayLabelWidths[d] = dayMetrics.stringWidth(Integer.toString(d));
+    }
+
+    // --- Layout / Hit Testing ---
+    private static int rowsFor(int cells) {
+        return Math.max(1, (cells + 6) / 7);
+    }
+
+    private int headerHeight() {
+        FontMetrics fm = headerMetrics != null ? headerMetrics : getFontMetrics(headerFont);
+        return fm.getHeight() + 12;
+    }
+
+    private Rectangle columnBounds(int col, int y, int height) {
+        int width = getWidth() - 6 * GAP;
+        int x0 = col * width / 7 + col * GAP;
+        int x1 = (col + 1) * width / 7 + col * GAP;
+        return new Rectangle(x0, y, x1 - x0, height);
+    }
+
+    private Rectangle cellBounds(int i) {
+        int rows = rowsFor(dates.length);
+        int header = headerHeight();
+        int height = getHeight() - header - (rows - 1) * GAP;
+        int row = i / 7;
+        int y0 = header + row * height / rows + row * GAP;
+        int y1 = header + (row + 1) * height / rows + row * GAP;
+        return columnBounds(i % 7, y0, y1 - y0);
+    }
+
+    // The day under the given point, or null for headers, gaps and padding cells
+    public LocalDate dateAt(int x, int y) {
+        if (y < headerHeight()) return null;
+        for (int i = 0; i < dates.length; i++) {
+            if (dates[i] != null && cellBounds(i).contains(x, y)) return dates[i];
+        }
+        return null;
+    }
+}
@@ -0,0 +1,59 @@
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+// One published version of the controller: the view settings plus the resident events as
+// an immutable index. The controller builds a new one at the end of every change and swaps
+// it in atomically; readers take the current one and work from it without locking, so an
+// edit that lands meanwhile neither waits for them nor changes what they see.
+public final class CalendarState {
+    public final long version; // increases with every published change
+    public final CalendarController.ViewMode mode;
+    public final CalendarController.TimeScale scale;
+    public final LocalDate referenceDate;
+    public final int nextEventId;
+    private final EventIndex.Snapshot events;
+    final YearMonth residentFrom, residentTo; // LAZY mode window, null otherwise
+
+    CalendarState(long version, CalendarController.ViewMode mode, CalendarController.TimeScale scale,
+                  LocalDate referenceDate, int nextEventId, EventIndex.Snapshot events,
+                  YearMonth residentFrom, YearMonth residentTo) {
+        this.version = version;
+        this.mode = mode;
+        this.scale = scale;
+        this.referenceDate = referenceDate;
+        this.nextEventId = nextEventId;
+        this.events = events;
+        this.residentFrom = residentFrom;
+        this.residentTo = residentTo;
+    }
+
+    // --- Range ---
+    public LocalDate getStartOfRange() { return rangeFor(scale, referenceDate)[0]; }
+    public LocalDate getEndOfRange() { return rangeFor(scale, referenceDate)[1]; }
+
+    // {first day, last day} shown for the given reference date at the given scale
+    static LocalDate[] rangeFor(CalendarController.TimeScale scale, LocalDate date) {
+        switch (scale) {
+            case DAY: return new LocalDate[]{date, date};
+            case WEEK:
+                LocalDate sunday = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+                return new LocalDate[]{sunday, sunday.plusDays(6)};
+            default: return new LocalDate[]{date.withDayOfMonth(1), date.with(TemporalAdjusters.lastDayOfMonth())};
+        }
+    }
+
+    // --- Events ---
+    // Resident events whose span overlaps [from, to], in the order they were added
+    public List<Event> query(LocalDate from, LocalDate to) { return events.query(from, to); }
+    public List<Event> getEvents() { return events.events(); }
+    public int getEventCount() { return events.size(); }
+
+    // True when every partition [from, to] can touch was resident in this state
+    boolean covers(LocalDate from, LocalDate to) {
+        if (residentFrom == null) return true;
+        return !YearMonth.from(from).isBefore(residentFrom) && !YearMonth.from(to).isAfter(residentTo);
+    }
+}
@@ -0,0 +1,87 @@
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Sort-and-sweep overlap detection over materialized occurrences.
+// Two occurrences conflict when each one starts before the other ends.
+public class ConflictDetector {
+
+    public static class Conflict {
+        public final Occurrence first;
+        public final Occurrence second;
+
+        public Conflict(Occurrence first, Occurrence second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        public LocalDateTime getOverlapStart() {
+            return first.start.isAfter(second.start) ? first.start : second.start;
+        }
+
+        public LocalDateTime getOverlapEnd() {
+            return first.end.isBefore(second.end) ? first.end : second.end;
+        }
+    }
+
+    // Start order, with shorter occurrences first on ties so zero-length
+    // occurrences touching a longer one are not reported
+    private static final Comparator<Occurrence> BY_START =
+            Comparator.comparing((Occurrence o) -> o.start).thenComparing(o -> o.end);
+
+    // Every overlapping pair: O(n log n + k) for n occurrences and k conflicts
+    public static List<Conflict> findConflicts(List<Occurrence> occurrences) {
+        List<Occurrence> sorted = new ArrayList<>(occurrences);
+        sorted.sort(BY_START);
+
+        List<Conflict> conflicts = new ArrayList<>();
+        PriorityQueue<Occurrence> active = new PriorityQueue<>(Comparator.comparing((Occurrence o) -> o.end));
+        for (Occurrence o : sorted) {
+            // Drop everything that finished before this one starts
+            while (!active.isEmpty() && !active.peek().end.isAfter(o.start)) active.poll();
+            for (Occurrence other : active) conflicts.add(new Conflict(other, o));
+            active.add(o);
+        }
+        return conflicts;
+    }
+
+    // True if any two occurrences overlap: O(n log n)
+    public static boolean hasAnyConflict(List<Occurrence> occurrences) {
+        if (occurrences.size() < 2) return false;
+        List<Occurrence> sorted = new ArrayList<>(occurrences);
+        sorted.sort(BY_START);
+
+        LocalDateTime latestEnd = sorted.get(0).end;
+        for (int i = 1; i < sorted.size(); i++) {
+            Occurrence o = sorted.get(i);
+            if (o.start.isBefore(latestEnd)) return true;
+            if (o.end.isAfter(latestEnd)) latestEnd = o.end;
+        }
+        return false;
+    }
+
+    // True if any occurrence in subject overlaps any occurrence in others: O(n log n)
+    public static boolean conflictsWith(List<Occurrence> subject, List<Occurrence> others) {
+        if (subject.isEmpty() || others.isEmpty()) return false;
+        List<Occurrence> a = new ArrayList<>(subject);
+        List<Occurrence> b = new ArrayList<>(others);
+        a.sort(BY_START);
+        b.sort(BY_START);
+
+        // Merge both lists in start order, tracking the latest end seen on each side
+        LocalDateTime latestA = null, latestB = null;
+        int i = 0, j = 0;
+        while (i < a.size() || j < b.size()) {
+            boolean takeA = j >= b.size() || (i < a.size() && BY_START.compare(a.get(i), b.get(j)) <= 0);
+            Occurrence o = takeA ? a.get(i++) : b.get(j++);
+            LocalDateTime latestOther = takeA ? latestB : latestA;
+            if (latestOther != null && o.start.isBefore(latestOther)) return true;
+
+            if (takeA) {
+                if (latestA == null || o.end.isAfter(latestA)) latestA = o.end;
+            } else {
+                if (latestB == null || o.end.isAfter(latestB)) latestB = o.end;
+            }
+        }
+        return false;
+    }
+}
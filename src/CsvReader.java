@@ -0,0 +1,229 @@
+import java.io.*;
+import java.time.LocalDateTime;
+
+// Streaming CSV reader. Reads straight from a char buffer into one reusable record
+// buffer, so the only allocations per row are the Strings and dates the caller asks for.
+// Supports RFC 4180 quoting ("a, b", "say ""hi""", and line breaks inside quotes);
+// unquoted fields are trimmed like the old split-based parser did.
+public class CsvReader implements Closeable {
+    private final Reader in;
+    private final char[] buf = new char[1 << 16];
+    private int pos = 0, limit = 0;
+
+    // Current record: field contents back to back, with start/end offsets per field
+    private char[] record = new char[256];
+    private int recordLen = 0;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int fields = 0;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    // Advances to the next record; false once the input is exhausted
+    public boolean next() throws IOException {
+        recordLen = 0;
+        fields = 0;
+        int c = read();
+        if (c < 0) return false;
+
+        int fieldStart = 0;
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) { // unterminated quote at end of input
+                    endField(fieldStart, true);
+                    return true;
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c == '"') {
+                        append('"');
+                    } else {
+                        quoted = false;
+                        continue; // handle the char after the closing quote normally
+                    }
+                } else {
+                    append((char) c);
+                }
+            } else if (c < 0 || c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') read();
+                endField(fieldStart, wasQuoted);
+                return true;
+            } else if (c == ',') {
+                endField(fieldStart, wasQuoted);
+                fieldStart = recordLen;
+                wasQuoted = false;
+            } else if (c == '"' && !wasQuoted && isBlank(fieldStart, recordLen)) {
+                recordLen = fieldStart; // drop any spaces before the opening quote
+                quoted = true;
+                wasQuoted = true;
+            } else if (!wasQuoted) {
+                append((char) c);
+                // Copy the rest of a plain run straight from the read buffer
+                int run = pos;
+                while (pos < limit) {
+                    char ch = buf[pos];
+                    if (ch == ',' || ch == '\n' || ch == '\r' || ch == '"') break;
+                    pos++;
+                }
+                appendRun(run, pos);
+            }
+            c = read();
+        }
+    }
+
+    public int fieldCount() { return fields; }
+
+    // A line with nothing on it
+    public boolean isBlankLine() {
+        return fields == 1 && starts[0] == ends[0];
+    }
+
+    public String getString(int field) {
+        check(field);
+        return new String(record, starts[field], ends[field] - starts[field]);
+    }
+
+    public int getInt(int field) {
+        check(field);
+        int i = starts[field], end = ends[field];
+        if (i == end) throw new NumberFormatException("empty field " + field);
+        boolean negative = record[i] == '-';
+        if (negative || record[i] == '+') i++;
+        if (i == end) throw new NumberFormatException(getString(field));
+
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = record[i] - '0';
+            if (digit < 0 || digit > 9) throw new NumberFormatException(getString(field));
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE + 1L) throw new NumberFormatException(getString(field));
+        }
+        if (negative) value = -value;
+        if (value > Integer.MAX_VALUE) throw new NumberFormatException(getString(field));
+        return (int) value;
+    }
+
+    // Reads yyyy-MM-ddTHH:mm[:ss[.fffffffff]] directly from the buffer; anything else
+    // goes through the ISO formatter
+    public LocalDateTime getDateTime(int field) {
+        check(field);
+        int s = starts[field], len = ends[field] - s;
+        if (len >= 16 && record[s + 4] == '-' && record[s + 7] == '-' && record[s + 10] == 'T' && record[s + 13] == ':') {
+            int year = digits(s, 4), month = digits(s + 5, 2), day = digits(s + 8, 2);
+            int hour = digits(s + 11, 2), minute = digits(s + 14, 2);
+            int second = 0, nano = 0;
+            boolean ok = year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0;
+
+            if (ok && len > 16) {
+                ok = len >= 19 && record[s + 16] == ':' && (second = digits(s + 17, 2)) >= 0;
+                if (ok && len > 19) {
+                    int fraction = len - 20;
+                    ok = record[s + 19] == '.' && fraction >= 1 && fraction <= 9 && (nano = digits(s + 20, fraction)) >= 0;
+                    for (int i = fraction; ok && i < 9; i++) nano *= 10;
+                }
+            }
+            if (ok) return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        }
+        return LocalDateTime.parse(getString(field), Event.FMT);
+    }
+
+    // The current record's fields joined back together, for error messages
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fields; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(record, starts[i], ends[i] - starts[i]);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // --- Helpers ---
+    private int read() throws IOException {
+        if (pos == limit) {
+            limit = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buf[pos++];
+    }
+
+    private int peek() throws IOException {
+        int c = read();
+        if (c >= 0) pos--;
+        return c;
+    }
+
+    private void append(char c) {
+        if (recordLen == record.length) {
+            char[] bigger = new char[record.length * 2];
+            System.arraycopy(record, 0, bigger, 0, recordLen);
+            record = bigger;
+        }
+        record[recordLen++] = c;
+    }
+
+    private void appendRun(int from, int to) {
+        int count = to - from;
+        if (count == 0) return;
+        if (recordLen + count > record.length) {
+            char[] bigger = new char[Math.max(record.length * 2, recordLen + count)];
+            System.arraycopy(record, 0, bigger, 0, recordLen);
+            record = bigger;
+        }
+        System.arraycopy(buf, from, record, recordLen, count);
+        recordLen += count;
+    }
+
+    private void endField(int start, boolean quoted) {
+        int end = recordLen;
+        if (!quoted) {
+            while (start < end && record[start] <= ' ') start++;
+            while (end > start && record[end - 1] <= ' ') end--;
+        }
+        if (fields == starts.length) {
+            int[] s = new int[fields * 2];
+            int[] e = new int[fields * 2];
+            System.arraycopy(starts, 0, s, 0, fields);
+            System.arraycopy(ends, 0, e, 0, fields);
+            starts = s;
+            ends = e;
+        }
+        starts[fields] = start;
+        ends[fields] = end;
+        fields++;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (record[i] > ' ') return false;
+        }
+        return true;
+    }
+
+    // Parses a run of ASCII digits, or returns -1 if any char is not a digit
+    private int digits(int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int d = record[i] - '0';
+            if (d < 0 || d > 9) return -1;
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private void check(int field) {
+        if (field < 0 || field >= fields) throw new IndexOutOfBoundsException("field " + field + " of " + fields);
+    }
+}
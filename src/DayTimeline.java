@@ -0,0 +1,248 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Painted 24-hour timeline for the day view. Occurrences are placed by minute once when
+// the day is set; overlapping ones share the width in side-by-side columns. Painting only
+// visits the hours and blocks inside the clip, so scrolling stays cheap on busy days.
+public class DayTimeline extends JComponent implements Scrollable {
+    private static final int HOUR_HEIGHT = 80;
+    private static final int GUTTER = 80;        // width of the time labels
+    private static final int MIN_MINUTES = 15;   // shorter events still get a clickable block
+    private static final int PAD = 10;
+
+    private static final Color GRID_LINE = Color.LIGHT_GRAY;
+    private static final Color CURRENT_HOUR_BG = new Color(255, 255, 220);
+    private static final Color TIME_FG = new Color(100, 100, 100);
+    private static final Color DETAIL_FG = new Color(80, 80, 80);
+    private static final Color RECUR_FG = new Color(255, 140, 0);
+
+    private final Font hourFont = new Font("Monospaced", Font.BOLD, 16);
+    private final Font titleFont = new Font("Arial", Font.BOLD, 14);
+    private final Font detailFont = new Font("Arial", Font.PLAIN, 11);
+    private final Font recurFont = new Font("Arial", Font.BOLD, 12);
+    private final Font emptyFont = new Font("Arial", Font.ITALIC, 11);
+    private final String[] hourLabels = new String[24];
+
+    private final Color eventBg, eventBorder;
+
+    // --- Layout, sorted by start minute ---
+    private Occurrence[] items = new Occurrence[0];
+    private String[] timeTexts = new String[0];
+    private int[] startMin = new int[0], endMin = new int[0];
+    private int[] column = new int[0], columns = new int[0];
+    private final boolean[] hourUsed = new boolean[24];
+    private LocalDate date;
+
+    private Consumer<Occurrence> eventListener;
+
+    public DayTimeline(Color eventBg, Color eventBorder) {
+        this.eventBg = eventBg;
+        this.eventBorder = eventBorder;
+        for (int h = 0; h < 24; h++) hourLabels[h] = String.format("%02d:00", h);
+        setOpaque(true);
+        setBackground(Color.WHITE);
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int i = itemAt(e.getX(), e.getY());
+                if (i >= 0 && eventListener != null) eventListener.accept(items[i]);
+            }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setCursor(Cursor.getPredefinedCursor(itemAt(e.getX(), e.getY()) >= 0 ? Cursor.HAND_CURSOR : Cursor.DEFAULT_CURSOR));
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    public void setEventListener(Consumer<Occurrence> listener) {
+        this.eventListener = listener;
+    }
+
+    // Lays out the occurrences starting on the given day
+    public void setDay(LocalDate date, List<Occurrence> occurrences) {
+        this.date = date;
+        int n = occurrences.size();
+        Occurrence[] sorted = occurrences.toArray(new Occurrence[0]);
+        Arrays.sort(sorted, Comparator.comparing((Occurrence o) -> o.start).thenComparing(o -> o.end, Comparator.reverseOrder()));
+
+        items = sorted;
+        timeTexts = new String[n];
+        startMin = new int[n];
+        endMin = new int[n];
+        column = new int[n];
+        columns = new int[n];
+        Arrays.fill(hourUsed, false);
+
+        // Single sweep: reuse the first column that is free, and close a cluster once
+        // nothing in it reaches the next start, fixing the column count of its members
+        int[] columnEnd = new int[4];
+        int used = 0, clusterStart = 0, clusterEnd = -1;
+        for (int i = 0; i < n; i++) {
+            Occurrence o = sorted[i];
+            int s = o.start.getHour() * 60 + o.start.getMinute();
+            long length = Duration.between(o.start, o.end).toMinutes();
+            int e = (int) Math.min(24 * 60, s + Math.max(MIN_MINUTES, length));
+            startMin[i] = s;
+            endMin[i] = e;
+            timeTexts[i] = o.start.toLocalTime() + " - " + o.end.toLocalTime();
+            for (int h = s / 60; h < 24 && h * 60 < e; h++) hourUsed[h] = true;
+
+            if (s >= clusterEnd) {
+                for (int k = clusterStart; k < i; k++) columns[k] = used;
+                used = 0;
+                clusterStart = i;
+            }
+            int c = 0;
+            while (c < used && columnEnd[c] > s) c++;
+            if (c == used) {
+                if (used == columnEnd.length) columnEnd = Arrays.copyOf(columnEnd, used * 2);
+                used++;
+            }
+            columnEnd[c] = e;
+            column[i] = c;
+            clusterEnd = Math.max(clusterEnd, e);
+        }
+        for (int k = clusterStart; k < n; k++) columns[k] = used;
+
+        revalidate();
+        repaint();
+    }
+
+    // --- Painting ---
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+        g2.setColor(getBackground());
+        g2.fill(clip);
+
+        int firstHour = Math.max(0, clip.y / HOUR_HEIGHT);
+        int lastHour = Math.min(23, (clip.y + clip.height) / HOUR_HEIGHT);
+        int currentHour = LocalDate.now().equals(date) ? LocalTime.now().getHour() : -1;
+        FontMetrics hourMetrics = g2.getFontMetrics(hourFont);
+        FontMetrics emptyMetrics = g2.getFontMetrics(emptyFont);
+
+        for (int h = firstHour; h <= lastHour; h++) {
+            int y = h * HOUR_HEIGHT;
+            if (h == currentHour) {
+                g2.setColor(CURRENT_HOUR_BG);
+                g2.fillRect(0, y, getWidth(), HOUR_HEIGHT);
+            }
+            g2.setColor(GRID_LINE);
+            g2.drawLine(0, y, getWidth(), y);
+
+            g2.setFont(hourFont);
+            g2.setColor(TIME_FG);
+            g2.drawString(hourLabels[h], (GUTTER - hourMetrics.stringWidth(hourLabels[h])) / 2,
+                    y + (HOUR_HEIGHT - hourMetrics.getHeight()) / 2 + hourMetrics.getAscent());
+
+            if (!hourUsed[h]) {
+                g2.setFont(emptyFont);
+                g2.setColor(Color.GRAY);
+                g2.drawString("No events", GUTTER + PAD, y + PAD + emptyMetrics.getAscent());
+            }
+        }
+
+        // Blocks are sorted by start, so stop at the first one below the clip
+        int clipTopMin = clip.y * 60 / HOUR_HEIGHT;
+        int clipBottomMin = (clip.y + clip.height) * 60 / HOUR_HEIGHT + 1;
+        for (int i = 0; i < items.length && startMin[i] <= clipBottomMin; i++) {
+            if (endMin[i] < clipTopMin) continue;
+            paintBlock(g2, i, blockBounds(i));
+        }
+    }
+
+    private void paintBlock(Graphics2D g2, int i, Rectangle r) {
+        g2.setColor(eventBg);
+        g2.fillRect(r.x, r.y, r.width, r.height);
+        g2.setColor(eventBorder);
+        g2.drawRect(r.x, r.y, r.width - 1, r.height - 1);
+        g2.drawRect(r.x + 1, r.y + 1, r.width - 3, r.height - 3);
+
+        Shape oldClip = g2.getClip();
+        g2.clipRect(r.x + 2, r.y + 2, r.width - 4, r.height - 4);
+
+        Event event = items[i].event;
+        FontMetrics titleMetrics = g2.getFontMetrics(titleFont);
+        int textX = r.x + 8;
+        int y = r.y + 4 + titleMetrics.getAscent();
+        g2.setFont(titleFont);
+        g2.setColor(getForeground());
+        g2.drawString(event.getTitle(), textX, y);
+
+        FontMetrics detailMetrics = g2.getFontMetrics(detailFont);
+        y += titleMetrics.getDescent() + detailMetrics.getAscent();
+        g2.setFont(detailFont);
+        g2.setColor(DETAIL_FG);
+        g2.drawString(timeTexts[i], textX, y);
+
+        if (event.getFrequency() != Recurrence.Frequency.NONE) {
+            FontMetrics recurMetrics = g2.getFontMetrics(recurFont);
+            g2.setFont(recurFont);
+            g2.setColor(RECUR_FG);
+            g2.drawString("[R]", r.x + r.width - 8 - recurMetrics.stringWidth("[R]"), r.y + 4 + recurMetrics.getAscent());
+        }
+        g2.setClip(oldClip);
+    }
+
+    // --- Layout / Hit Testing ---
+    private Rectangle blockBounds(int i) {
+        int area = Math.max(0, getWidth() - GUTTER - 2 * PAD);
+        int x0 = GUTTER + PAD + column[i] * area / columns[i];
+        int x1 = GUTTER + PAD + (column[i] + 1) * area / columns[i];
+        int y0 = startMin[i] * HOUR_HEIGHT / 60;
+        int y1 = endMin[i] * HOUR_HEIGHT / 60;
+        return new Rectangle(x0, y0 + 1, Math.max(1, x1 - x0 - 2), Math.max(1, y1 - y0 - 2));
+    }
+
+    // Topmost block under the point, or -1
+    private int itemAt(int x, int y) {
+        if (x < GUTTER) return -1;
+        for (int i = items.length - 1; i >= 0; i--) {
+            if (blockBounds(i).contains(x, y)) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(800, 24 * HOUR_HEIGHT);
+    }
+
+    // --- Scrollable ---
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return new Dimension(800, 8 * HOUR_HEIGHT);
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return HOUR_HEIGHT / 4;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return Math.max(HOUR_HEIGHT, visibleRect.height - HOUR_HEIGHT);
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() { return true; }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() { return false; }
+}
@@ -1,28 +1,27 @@
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+// A lightweight view of one slot in an EventColumns store; the values live in its columns.
+// Events built with the public constructors get a private one-slot store until the
+// controller adopts them into its own.
 public class Event {
-    private int id;
-    private String title;
-    private String description;
-    private LocalDateTime start;
-    private LocalDateTime end;
-    
-    private String recurType; // "NONE", "DAILY", "WEEKLY", "MONTHLY"
-    private int recurCount;   // How many times it repeats
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private volatile EventColumns columns; // only changes when the slot is released
+    private final int slot;
 
     // Date formatter for CSV
     public static final DateTimeFormatter FMT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
     // Full Constructor
+    public Event(int id, String title, String description, LocalDateTime start, LocalDateTime end, Recurrence recurrence) {
+        this.columns = EventColumns.single(id, title, description, start, end, recurrence);
+        this.slot = 0;
+    }
+
     public Event(int id, String title, String description, LocalDateTime start, LocalDateTime end, String recurType, int recurCount) {
-        this.id = id;
-        this.title = title;
-        this.description = description;
-        this.start = start;
-        this.end = end;
-        this.recurType = recurType;
-        this.recurCount = recurCount;
+        this(id, title, description, start, end, Recurrence.of(recurType, recurCount));
     }
 
     // Simplified Constructor (for non-recurring events)
@@ -30,62 +29,131 @@ public class Event {
         this(id, title, description, start, end, "NONE", 0);
     }
 
+    Event(EventColumns columns, int slot) {
+        this.columns = columns;
+        this.slot = slot;
+    }
+
+    EventColumns getColumns() { return columns; }
+    int getSlot() { return slot; }
+    void moveTo(EventColumns copy) { this.columns = copy; }
+
     // --- GETTERS ---
-    public int getId() { return id; }
-    public String getTitle() { return title; }
-    public String getDescription() { return description; }
-    public LocalDateTime getStart() { return start; }
-    public LocalDateTime getEnd() { return end; }
-    public String getRecurType() { return recurType; }
-    public int getRecurCount() { return recurCount; }
+    public int getId() { return columns.id(slot); }
+    public String getTitle() { return columns.title(slot); }
+    public String getDescription() { return columns.description(slot); }
+    public LocalDateTime getStart() { return EventColumns.toDateTime(columns.start(slot)); }
+    public LocalDateTime getEnd() { return EventColumns.toDateTime(columns.end(slot)); }
+    public String getRecurType() { return getFrequency().name(); }
+    public int getRecurCount() { return columns.count(slot); }
+    public Recurrence.Frequency getFrequency() { return Recurrence.frequency(columns.frequency(slot)); }
+    public int getInterval() { return columns.interval(slot); }
+
+    // Built on demand for editing and saving; the occurrence math reads the columns directly
+    public Recurrence getRecurrence() {
+        EventColumns c = columns;
+        int until = c.until(slot);
+        return new Recurrence(Recurrence.frequency(c.frequency(slot)), c.interval(slot), c.byDay(slot), c.count(slot),
+                until == Recurrence.NO_UNTIL ? null : LocalDate.ofEpochDay(until));
+    }
+    public long getVersion() { return columns.version(slot); }
+
+    // Epoch day of the first start, without building a LocalDateTime
+    public long getStartEpochDay() { return Math.floorDiv(columns.start(slot), SECONDS_PER_DAY); }
 
     // --- SETTERS ---
-    public void setTitle(String title) { this.title = title; }
-    public void setDescription(String description) { this.description = description; }
-    public void setStart(LocalDateTime start) { this.start = start; }
-    public void setEnd(LocalDateTime end) { this.end = end; }
-    public void setRecurType(String recurType) { this.recurType = recurType; }
-    public void setRecurCount(int recurCount) { this.recurCount = recurCount; }
+    public void setTitle(String title) { columns.setTitle(slot, title); }
+    public void setDescription(String description) { columns.setDescription(slot, description); }
+    public void setStart(LocalDateTime start) { columns.setStart(slot, start); }
+    public void setEnd(LocalDateTime end) { columns.setEnd(slot, end); }
+    public void setRecurType(String recurType) { columns.setFrequency(slot, Recurrence.frequencyOf(recurType)); }
+    public void setRecurCount(int recurCount) { columns.setCount(slot, recurCount); }
+    public void setRecurrence(Recurrence recurrence) { columns.setRecurrence(slot, recurrence); }
 
     // --- LOGIC ---
-    public boolean occursOn(java.time.LocalDate date) {
-        // Check original date
-        if (start.toLocalDate().equals(date)) return true;
-        
-        // Check recurrences
-        if (!"NONE".equalsIgnoreCase(recurType)) {
-            for (int i = 1; i <= recurCount; i++) {
-                LocalDateTime next = getOccurrence(i);
-                if (next.toLocalDate().equals(date)) return true;
-            }
-        }
-        return false;
+    public boolean occursOn(LocalDate date) {
+        return occursBetween(date, date);
+    }
+
+    // True if any occurrence starts on a day within [from, to]
+    public boolean occursBetween(LocalDate from, LocalDate to) {
+        int i = firstOccurrenceOnOrAfter(from);
+        return i >= 0 && !getOccurrence(i).toLocalDate().isAfter(to);
+    }
+
+    // Index of the first occurrence starting on or after the given day, or -1 if the series
+    // has already finished. Computed directly from the rule instead of walking the series.
+    public int firstOccurrenceOnOrAfter(LocalDate date) {
+        EventColumns c = columns;
+        long index = Recurrence.firstIndexOnOrAfter(c.start(slot), c.frequency(slot), c.interval(slot), c.byDay(slot),
+                date.toEpochDay());
+        return index <= getLastOccurrenceIndex() ? (int) index : -1;
     }
 
     public LocalDateTime getOccurrence(int index) {
-        switch (recurType.toUpperCase()) {
-            case "DAILY": return start.plusDays(index);
-            case "WEEKLY": return start.plusWeeks(index);
-            case "MONTHLY": return start.plusMonths(index);
-            default: return start;
-        }
+        return EventColumns.toDateTime(getOccurrenceEpochSecond(index));
+    }
+
+    // Start of a given occurrence as epoch seconds, without allocating
+    public long getOccurrenceEpochSecond(int index) {
+        EventColumns c = columns;
+        return Recurrence.occurrenceSecond(c.start(slot), c.frequency(slot), c.interval(slot), c.byDay(slot), index);
+    }
+
+    // End of a given occurrence, keeping the original event's duration
+    public LocalDateTime getOccurrenceEnd(int index) {
+        EventColumns c = columns;
+        return EventColumns.toDateTime(getOccurrenceEpochSecond(index) + c.end(slot) - c.start(slot));
+    }
+
+    // Index of the final occurrence (0 when the event does not repeat): the count, cut short
+    // by the until date when there is one
+    public int getLastOccurrenceIndex() {
+        EventColumns c = columns;
+        int frequency = c.frequency(slot);
+        int count = c.count(slot);
+        int until = c.until(slot);
+        if (frequency == Recurrence.Frequency.NONE.ordinal()) return 0;
+        if (until == Recurrence.NO_UNTIL) return count;
+
+        long beyond = Recurrence.firstIndexOnOrAfter(c.start(slot), frequency, c.interval(slot), c.byDay(slot), until + 1L);
+        long last = Math.min(count > 0 ? count : Integer.MAX_VALUE - 1, beyond - 1);
+        return (int) Math.max(0, last);
+    }
+
+    // Start of the final occurrence (the event itself when it does not repeat)
+    public LocalDateTime getLastOccurrence() {
+        return getOccurrence(getLastOccurrenceIndex());
+    }
+
+    // End of the final occurrence, so [start, spanEnd] covers the whole series
+    public LocalDateTime getSpanEnd() {
+        return getOccurrenceEnd(getLastOccurrenceIndex());
     }
 
     // CSV Parsing Helper (reads from event.csv format)
     public static Event fromCSV(String csvLine) {
+        try (CsvReader reader = new CsvReader(new java.io.StringReader(csvLine))) {
+            return reader.next() ? fromCSV(reader, 0) : null;
+        } catch (java.io.IOException e) {
+            return null; // cannot happen for an in-memory reader
+        }
+    }
+
+    // Reads the five event.csv columns starting at the given field of the current record
+    public static Event fromCSV(CsvReader reader, int firstField) {
         try {
-            String[] parts = csvLine.split(",", 5); // Limit to 5 parts
-            if (parts.length < 5) return null;
-            
-            int id = Integer.parseInt(parts[0].trim());
-            String title = parts[1].trim();
-            String desc = parts[2].trim();
-            LocalDateTime start = LocalDateTime.parse(parts[3].trim(), FMT);
-            LocalDateTime end = LocalDateTime.parse(parts[4].trim(), FMT);
-            
+            if (reader.fieldCount() < firstField + 5) return null;
+
+            int id = reader.getInt(firstField);
+            String title = reader.getString(firstField + 1);
+            String desc = reader.getString(firstField + 2);
+            LocalDateTime start = reader.getDateTime(firstField + 3);
+            LocalDateTime end = reader.getDateTime(firstField + 4);
+
             return new Event(id, title, desc, start, end, "NONE", 0);
         } catch (Exception e) {
-            System.err.println("Error parsing CSV line: " + csvLine);
+            System.err.println("Error parsing CSV line: " + reader.describe());
             e.printStackTrace();
             return null;
         }
@@ -0,0 +1,229 @@
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Structure-of-arrays storage behind Event: one primitive column per field, indexed by slot.
+// Start and end are local date-times as epoch seconds, the recurrence rule is spread over
+// frequency/interval/weekday/count/until columns and titles and descriptions are interned,
+// so an event costs a few dozen bytes of columns plus its small flyweight instead of a
+// graph of LocalDateTime/LocalDate/LocalTime objects.
+//
+// Freed slots are reused. Before a slot is freed its flyweight is detached onto a private
+// one-slot copy that keeps the same slot number, so anything still holding the old Event
+// (a queued write, a reminder) keeps reading its own values instead of the next tenant's.
+// A freed slot keeps its values and only becomes reusable at the next recycle(), which the
+// controller calls as it publishes a new state, so a reader that fetched the old columns
+// just before the detach still finds the old values there.
+//
+// Readers do not lock. The arrays live in one Block that growing replaces as a whole through
+// a volatile field, so a reader sees either the old set of arrays or the new one, never a mix.
+public class EventColumns {
+
+    // Changes on every write, so caches keyed by it never serve an outdated expansion
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final int base;       // slot number of array index 0 (non-zero only for detached copies)
+    private final boolean intern; // shared stores intern their text, throwaway copies do not
+    private volatile Block data;
+
+    private int used = 0;         // slots handed out so far, live or freed
+    private int live = 0;
+    private int[] free = new int[0];
+    private int freeCount = 0;
+    private int[] retired = new int[0]; // freed since the last recycle(), not yet reusable
+    private int retiredCount = 0;
+
+    public EventColumns() {
+        this(0, 1024, true);
+    }
+
+    private EventColumns(int base, int capacity, boolean intern) {
+        this.base = base;
+        this.intern = intern;
+        this.data = new Block(capacity);
+    }
+
+    // One set of columns, all the same length
+    private static final class Block {
+        final int[] ids;
+        final long[] starts;
+        final long[] ends;
+        final byte[] frequencies;   // Recurrence.Frequency ordinals
+        final int[] intervals;
+        final byte[] byDays;
+        final int[] counts;
+        final int[] untils;         // epoch days, Recurrence.NO_UNTIL when open-ended
+        final long[] versions;
+        final String[] titles;
+        final String[] descriptions;
+
+        Block(int capacity) {
+            ids = new int[capacity];
+            starts = new long[capacity];
+            ends = new long[capacity];
+            frequencies = new byte[capacity];
+            intervals = new int[capacity];
+            byDays = new byte[capacity];
+            counts = new int[capacity];
+            untils = new int[capacity];
+            versions = new long[capacity];
+            titles = new String[capacity];
+            descriptions = new String[capacity];
+        }
+
+        // A copy with room for capacity slots
+        Block(Block from, int capacity) {
+            ids = Arrays.copyOf(from.ids, capacity);
+            starts = Arrays.copyOf(from.starts, capacity);
+            ends = Arrays.copyOf(from.ends, capacity);
+            frequencies = Arrays.copyOf(from.frequencies, capacity);
+            intervals = Arrays.copyOf(from.intervals, capacity);
+            byDays = Arrays.copyOf(from.byDays, capacity);
+            counts = Arrays.copyOf(from.counts, capacity);
+            untils = Arrays.copyOf(from.untils, capacity);
+            versions = Arrays.copyOf(from.versions, capacity);
+            titles = Arrays.copyOf(from.titles, capacity);
+            descriptions = Arrays.copyOf(from.descriptions, capacity);
+        }
+    }
+
+    // A store holding just one event at slot 0, for events built outside the controller
+    static EventColumns single(int id, String title, String description, LocalDateTime start, LocalDateTime end,
+                               Recurrence recurrence) {
+        EventColumns own = new EventColumns(0, 1, false);
+        own.put(id, title, description, start, end, recurrence);
+        return own;
+    }
+
+    // --- Maintenance ---
+    public Event add(int id, String title, String description, LocalDateTime start, LocalDateTime end,
+                     Recurrence recurrence) {
+        return new Event(this, put(id, title, description, start, end, recurrence));
+    }
+
+    private synchronized int put(int id, String title, String description, LocalDateTime start, LocalDateTime end,
+                                 Recurrence recurrence) {
+        int slot = allocate();
+        int i = slot - base;
+        Block d = data;
+        d.ids[i] = id;
+        d.titles[i] = text(title);
+        d.descriptions[i] = text(description);
+        d.starts[i] = toEpochSecond(start);
+        d.ends[i] = toEpochSecond(end);
+        writeRecurrence(d, i, recurrence);
+        d.versions[i] = VERSIONS.incrementAndGet();
+        return slot;
+    }
+
+    // This store's view of the event: the event itself if it already lives here, otherwise a copy
+    public Event adopt(Event e) {
+        if (e.getColumns() == this) return e;
+        return add(e.getId(), e.getTitle(), e.getDescription(), e.getStart(), e.getEnd(), e.getRecurrence());
+    }
+
+    // Frees the event's slot, leaving the Event readable on a private copy of its values
+    public synchronized void release(Event e) {
+        if (e.getColumns() != this) return;
+        int slot = e.getSlot();
+        int i = slot - base;
+        Block d = data;
+        EventColumns copy = new EventColumns(slot, 1, false);
+        copy.used = slot + 1;
+        copy.live = 1;
+        Block c = copy.data;
+        c.ids[0] = d.ids[i];
+        c.titles[0] = d.titles[i];
+        c.descriptions[0] = d.descriptions[i];
+        c.starts[0] = d.starts[i];
+        c.ends[0] = d.ends[i];
+        c.frequencies[0] = d.frequencies[i];
+        c.intervals[0] = d.intervals[i];
+        c.byDays[0] = d.byDays[i];
+        c.counts[0] = d.counts[i];
+        c.untils[0] = d.untils[i];
+        c.versions[0] = d.versions[i];
+        e.moveTo(copy);
+
+        // The slot's own values stay until add() reuses it after the next recycle()
+        if (retiredCount == retired.length) retired = Arrays.copyOf(retired, Math.max(16, retired.length * 2));
+        retired[retiredCount++] = slot;
+        live--;
+    }
+
+    // Makes the slots released so far available to add()
+    public synchronized void recycle() {
+        if (retiredCount == 0) return;
+        if (freeCount + retiredCount > free.length) free = Arrays.copyOf(free, Math.max(16, (freeCount + retiredCount) * 2));
+        System.arraycopy(retired, 0, free, freeCount, retiredCount);
+        freeCount += retiredCount;
+        retiredCount = 0;
+    }
+
+    public synchronized int size() { return live; }
+
+    // Rough heap taken by the columns and flyweights, not counting the interned text
+    public synchronized long estimateBytes() {
+        long perSlot = 4 + 8 + 8 + 1 + 4 + 1 + 4 + 4 + 8 + 4 + 4; // columns, with compressed references
+        long perView = 24;                            // header, columns reference, slot
+        return data.ids.length * perSlot + (long) live * perView + 4L * (free.length + retired.length);
+    }
+
+    private int allocate() {
+        live++;
+        if (freeCount > 0) return free[--freeCount];
+        if (used - base == data.ids.length) grow();
+        return used++;
+    }
+
+    // Copies into a larger Block and publishes it in one volatile write
+    private void grow() {
+        int length = data.ids.length;
+        data = new Block(data, Math.max(16, length + (length >> 1)));
+    }
+
+    private static void writeRecurrence(Block d, int i, Recurrence r) {
+        d.frequencies[i] = (byte) r.frequency.ordinal();
+        d.intervals[i] = r.interval;
+        d.byDays[i] = (byte) r.byDay;
+        d.counts[i] = r.count;
+        d.untils[i] = r.until == null ? Recurrence.NO_UNTIL : (int) r.until.toEpochDay();
+    }
+
+    private String text(String s) {
+        return s != null && intern ? s.intern() : s;
+    }
+
+    // --- Column access for Event ---
+    int id(int slot) { return data.ids[slot - base]; }
+    String title(int slot) { return data.titles[slot - base]; }
+    String description(int slot) { return data.descriptions[slot - base]; }
+    long start(int slot) { return data.starts[slot - base]; }
+    long end(int slot) { return data.ends[slot - base]; }
+    int frequency(int slot) { return data.frequencies[slot - base]; }
+    int interval(int slot) { return data.intervals[slot - base]; }
+    int byDay(int slot) { return data.byDays[slot - base]; }
+    int count(int slot) { return data.counts[slot - base]; }
+    int until(int slot) { return data.untils[slot - base]; }
+    long version(int slot) { return data.versions[slot - base]; }
+
+    synchronized void setTitle(int slot, String title) { data.titles[slot - base] = text(title); touch(slot); }
+    synchronized void setDescription(int slot, String description) { data.descriptions[slot - base] = text(description); touch(slot); }
+    synchronized void setStart(int slot, LocalDateTime start) { data.starts[slot - base] = toEpochSecond(start); touch(slot); }
+    synchronized void setEnd(int slot, LocalDateTime end) { data.ends[slot - base] = toEpochSecond(end); touch(slot); }
+    synchronized void setFrequency(int slot, Recurrence.Frequency frequency) { data.frequencies[slot - base] = (byte) frequency.ordinal(); touch(slot); }
+    synchronized void setCount(int slot, int count) { data.counts[slot - base] = Math.max(0, count); touch(slot); }
+    synchronized void setRecurrence(int slot, Recurrence recurrence) { writeRecurrence(data, slot - base, recurrence); touch(slot); }
+
+    private void touch(int slot) { data.versions[slot - base] = VERSIONS.incrementAndGet(); }
+
+    // --- Encoding ---
+    static long toEpochSecond(LocalDateTime t) {
+        return t.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static LocalDateTime toDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+}
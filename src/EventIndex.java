@@ -0,0 +1,212 @@
+import java.time.LocalDate;
+import java.util.*;
+
+// Interval tree over the full occurrence span of each event
+// (first start day up to the end day of its last occurrence).
+// Stored as a treap ordered by span start, where every node also keeps the
+// largest span end found in its subtree, so a range query skips any subtree
+// that cannot overlap the requested days.
+//
+// Nodes are never modified once built: an insert or delete copies the O(log n) nodes on
+// its path and shares the rest. A Snapshot is therefore just the root at that moment, and
+// stays valid and unchanged however the index is edited afterwards. Only the index itself
+// is single-writer; snapshots can be queried from any thread.
+public class EventIndex {
+
+    private static class Node {
+        final long lo;       // epoch day of the first start
+        final long hi;       // epoch day of the last occurrence end
+        final long seq;      // insertion order, breaks ties and keeps results stable
+        final int priority;
+        final Event event;
+        final long maxHi;
+        final Node left, right;
+
+        Node(long lo, long hi, long seq, int priority, Event event, Node left, Node right) {
+            this.lo = lo;
+            this.hi = hi;
+            this.seq = seq;
+            this.priority = priority;
+            this.event = event;
+            this.left = left;
+            this.right = right;
+            long max = hi;
+            if (left != null && left.maxHi > max) max = left.maxHi;
+            if (right != null && right.maxHi > max) max = right.maxHi;
+            this.maxHi = max;
+        }
+
+        // The same entry over different children
+        Node with(Node left, Node right) {
+            return new Node(lo, hi, seq, priority, event, left, right);
+        }
+    }
+
+    // The index as it was when taken; later edits build new nodes instead of touching these
+    public static final class Snapshot {
+        private final Node root;
+        private final int size;
+
+        private Snapshot(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        public List<Event> query(LocalDate from, LocalDate to) { return EventIndex.query(root, from, to); }
+        public int size() { return size; }
+
+        // Every indexed event, in the order they were added
+        public List<Event> events() {
+            List<Node> all = new ArrayList<>(size);
+            collectAll(root, all);
+            return bySeq(all);
+        }
+    }
+
+    private Node root;
+    private final Map<Event, Node> nodes = new IdentityHashMap<>();
+    private final Random random = new Random();
+    private long nextSeq = 0;
+
+    // --- Maintenance ---
+    public void add(Event e) {
+        if (nodes.containsKey(e)) remove(e);
+        long lo = e.getStartEpochDay();
+        long hi = Math.max(lo, e.getSpanEnd().toLocalDate().toEpochDay());
+        Node node = new Node(lo, hi, nextSeq++, random.nextInt(), e, null, null);
+        nodes.put(e, node);
+        root = insert(root, node);
+    }
+
+    public void remove(Event e) {
+        Node node = nodes.remove(e);
+        if (node != null) root = delete(root, node);
+    }
+
+    // Sorts once and builds the treap bottom-up instead of inserting one path copy at a time
+    public void rebuild(Collection<Event> events) {
+        clear();
+        int n = events.size();
+        Event[] byPosition = events.toArray(new Event[0]);
+        long[] order = new long[n]; // start day in the high half, input position in the low half
+        for (int i = 0; i < n; i++) order[i] = byPosition[i].getStartEpochDay() << 32 | i;
+        Arrays.sort(order);
+
+        // Cartesian tree on the priorities, with the entries already in key order
+        int[] priorities = new int[n];
+        int[] left = new int[n], right = new int[n], stack = new int[n];
+        int top = 0;
+        for (int k = 0; k < n; k++) {
+            priorities[k] = random.nextInt();
+            left[k] = right[k] = -1;
+            int last = -1;
+            while (top > 0 && priorities[stack[top - 1]] < priorities[k]) last = stack[--top];
+            left[k] = last;
+            if (top > 0) right[stack[top - 1]] = k;
+            stack[top++] = k;
+        }
+        nextSeq = n;
+        root = top == 0 ? null : build(stack[0], order, byPosition, priorities, left, right);
+    }
+
+    private Node build(int k, long[] order, Event[] byPosition, int[] priorities, int[] left, int[] right) {
+        Node l = left[k] < 0 ? null : build(left[k], order, byPosition, priorities, left, right);
+        Node r = right[k] < 0 ? null : build(right[k], order, byPosition, priorities, left, right);
+        int position = (int) order[k]; // also its seq, so results keep the input order
+        Event e = byPosition[position];
+        long lo = e.getStartEpochDay();
+        long hi = Math.max(lo, e.getSpanEnd().toLocalDate().toEpochDay());
+        Node node = new Node(lo, hi, position, priorities[k], e, l, r);
+        nodes.put(e, node);
+        return node;
+    }
+
+    public void clear() {
+        root = null;
+        nodes.clear();
+    }
+
+    public int size() { return nodes.size(); }
+
+    public Snapshot snapshot() { return new Snapshot(root, nodes.size()); }
+
+    // The span the event was indexed with, as {first day, last day}, or null if not indexed.
+    // Still the old span when the event was modified in place after being added.
+    public LocalDate[] getIndexedSpan(Event e) {
+        Node node = nodes.get(e);
+        return node == null ? null : new LocalDate[]{LocalDate.ofEpochDay(node.lo), LocalDate.ofEpochDay(node.hi)};
+    }
+
+    // --- Queries ---
+    // Events whose span overlaps [from, to], in the order they were added
+    public List<Event> query(LocalDate from, LocalDate to) {
+        return query(root, from, to);
+    }
+
+    private static List<Event> query(Node root, LocalDate from, LocalDate to) {
+        List<Node> hits = new ArrayList<>();
+        collect(root, from.toEpochDay(), to.toEpochDay(), hits);
+        return bySeq(hits);
+    }
+
+    private static List<Event> bySeq(List<Node> hits) {
+        hits.sort(Comparator.comparingLong(n -> n.seq));
+        List<Event> result = new ArrayList<>(hits.size());
+        for (Node n : hits) result.add(n.event);
+        return result;
+    }
+
+    private static void collectAll(Node n, List<Node> out) {
+        while (n != null) {
+            collectAll(n.left, out);
+            out.add(n);
+            n = n.right;
+        }
+    }
+
+    private static void collect(Node n, long from, long to, List<Node> out) {
+        while (n != null && n.maxHi >= from) {
+            collect(n.left, from, to, out);
+            if (n.lo > to) return; // everything to the right starts even later
+            if (n.hi >= from) out.add(n);
+            n = n.right;
+        }
+    }
+
+    // --- Treap Helpers ---
+    private static int compare(Node a, Node b) {
+        if (a.lo != b.lo) return Long.compare(a.lo, b.lo);
+        return Long.compare(a.seq, b.seq);
+    }
+
+    // Copies the path down to the insertion point; a rotation is just a different
+    // arrangement of the copies
+    private static Node insert(Node n, Node node) {
+        if (n == null) return node;
+        if (compare(node, n) < 0) {
+            Node l = insert(n.left, node);
+            if (l.priority > n.priority) return l.with(l.left, n.with(l.right, n.right));
+            return n.with(l, n.right);
+        } else {
+            Node r = insert(n.right, node);
+            if (r.priority > n.priority) return r.with(n.with(n.left, r.left), r.right);
+            return n.with(n.left, r);
+        }
+    }
+
+    private static Node delete(Node n, Node node) {
+        if (n == null) return null;
+        int cmp = compare(node, n);
+        if (cmp < 0) return n.with(delete(n.left, node), n.right);
+        if (cmp > 0) return n.with(n.left, delete(n.right, node));
+        return merge(n.left, n.right);
+    }
+
+    // Joins two treaps where every key in a precedes every key in b
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) return a.with(a.left, merge(a.right, b));
+        return b.with(merge(a, b.left), b.right);
+    }
+}
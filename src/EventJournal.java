@@ -0,0 +1,141 @@
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Append-only log of event mutations, one CSV record per mutation.
+// Every append reaches the OS straight away; the fsync is shared by a group of
+// appends (every SYNC_GROUP records or SYNC_DELAY_MS, whichever comes first).
+// When the log is compacted it is first rotated aside, so new appends never wait
+// for the snapshot to be written.
+public class EventJournal {
+    private static final int SYNC_GROUP = 32;
+    private static final long SYNC_DELAY_MS = 200;
+
+    private final Path path;
+    private final Path rotatedPath;
+    private final ScheduledExecutorService syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "journal-sync");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private FileChannel channel;
+    private Writer writer;
+    private int unsynced = 0;
+    private boolean syncScheduled = false;
+    private volatile long size = -1; // bytes in the live log, read without taking the lock
+
+    public EventJournal(String file) {
+        this.path = Paths.get(file);
+        this.rotatedPath = Paths.get(file + ".1");
+    }
+
+    // --- Writing ---
+    public synchronized void append(String record) throws IOException {
+        if (writer == null) open();
+        writer.write(record);
+        writer.write('\n');
+        writer.flush();
+        size = size() + record.length() + 1; // chars, close enough for the compaction threshold
+
+        unsynced++;
+        if (unsynced >= SYNC_GROUP) {
+            sync();
+        } else if (!syncScheduled) {
+            syncScheduled = true;
+            syncer.schedule(this::scheduledSync, SYNC_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Writes a batch of records with a single flush and a single fsync
+    public synchronized void appendAll(List<String> records) throws IOException {
+        if (records.isEmpty()) return;
+        if (writer == null) open();
+        long added = 0;
+        for (String record : records) {
+            writer.write(record);
+            writer.write('\n');
+            added += record.length() + 1;
+        }
+        writer.flush();
+        size = size() + added;
+        unsynced += records.size();
+        sync();
+    }
+
+    public synchronized void sync() throws IOException {
+        if (channel != null && unsynced > 0) channel.force(false);
+        unsynced = 0;
+    }
+
+    private synchronized void scheduledSync() {
+        syncScheduled = false;
+        try {
+            sync();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public long size() {
+        long current = size;
+        if (current < 0) {
+            try {
+                current = Files.exists(path) ? Files.size(path) : 0;
+            } catch (IOException e) {
+                current = 0;
+            }
+            size = current;
+        }
+        return current;
+    }
+
+    // --- Rotation ---
+    // Moves the live log aside so it can be folded into a snapshot.
+    // Returns false if an earlier rotation has not been compacted yet.
+    public synchronized boolean rotate() throws IOException {
+        if (Files.exists(rotatedPath)) return false;
+        close();
+        if (Files.exists(path)) Files.move(path, rotatedPath);
+        size = 0;
+        return true;
+    }
+
+    public synchronized void discardRotated() throws IOException {
+        Files.deleteIfExists(rotatedPath);
+    }
+
+    // Drops every record, used once a full snapshot already holds them
+    public synchronized void clear() throws IOException {
+        close();
+        Files.deleteIfExists(rotatedPath);
+        Files.deleteIfExists(path);
+        size = 0;
+    }
+
+    public synchronized void close() throws IOException {
+        if (writer == null) return;
+        sync();
+        writer.close();
+        writer = null;
+        channel = null;
+    }
+
+    // --- Reading ---
+    // Journal files in the order they were written: the rotated log first, then the live one
+    public synchronized List<Path> getFiles() {
+        List<Path> files = new ArrayList<>();
+        if (Files.exists(rotatedPath)) files.add(rotatedPath);
+        if (Files.exists(path)) files.add(path);
+        return files;
+    }
+
+    private void open() throws IOException {
+        FileOutputStream out = new FileOutputStream(path.toFile(), true);
+        channel = out.getChannel();
+        writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+}
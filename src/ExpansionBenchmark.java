@@ -0,0 +1,69 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Times the sequential cursor against ParallelExpander on synthetic calendars.
+// Run with: java Main --bench-expansion
+// Each size is warmed up first, then the median of the measured runs is reported, and the
+// two paths are checked to return the same matches in the same order.
+public class ExpansionBenchmark {
+
+    private static final int[] SIZES = {1_000, 100_000, 1_000_000};
+    private static final int WARMUP = 3;
+    private static final int RUNS = 5;
+
+    public static void run() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+        System.out.println("Expanding one year, " + Runtime.getRuntime().availableProcessors() + " cores");
+        System.out.printf("%10s %12s %12s %12s %8s%n", "events", "matches", "sequential", "parallel", "speedup");
+
+        for (int size : SIZES) {
+            List<Event> events = generate(size, new Random(42));
+            List<CalendarController.SearchMatch> expected = new SearchCursor(events, from, to).drain();
+            List<CalendarController.SearchMatch> actual = ParallelExpander.expand(events, from, to);
+            if (!sameOrder(expected, actual)) throw new IllegalStateException("parallel order differs at " + size);
+
+            double sequential = time(() -> new SearchCursor(events, from, to).drain());
+            double parallel = time(() -> ParallelExpander.expand(events, from, to));
+            System.out.printf("%10d %12d %10.1fms %10.1fms %7.2fx%n",
+                    size, expected.size(), sequential, parallel, sequential / parallel);
+        }
+    }
+
+    // Mostly one-off events, with a share of weekly and monthly series, spread over two years
+    private static List<Event> generate(int size, Random random) {
+        List<Event> events = new ArrayList<>(size);
+        LocalDateTime base = LocalDateTime.of(2024, 7, 1, 0, 0);
+        for (int i = 0; i < size; i++) {
+            LocalDateTime start = base.plusDays(random.nextInt(730)).plusMinutes(15L * random.nextInt(96));
+            LocalDateTime end = start.plusMinutes(30 + 15L * random.nextInt(8));
+            int kind = random.nextInt(10);
+            String type = kind < 7 ? "NONE" : kind < 9 ? "WEEKLY" : "MONTHLY";
+            int count = "NONE".equals(type) ? 0 : 1 + random.nextInt(20);
+            events.add(new Event(i + 1, "Event " + i, "", start, end, type, count));
+        }
+        return events;
+    }
+
+    private static boolean sameOrder(List<CalendarController.SearchMatch> a, List<CalendarController.SearchMatch> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i).event != b.get(i).event || !a.get(i).date.equals(b.get(i).date)) return false;
+        }
+        return true;
+    }
+
+    // Median wall time in milliseconds
+    private static double time(Runnable body) {
+        for (int i = 0; i < WARMUP; i++) body.run();
+        double[] samples = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            body.run();
+            samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2];
+    }
+}
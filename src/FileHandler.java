@@ -1,168 +1,359 @@
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.zip.*;
 
 public class FileHandler {
-    private final String DATA_DIR = "data";
-    private final String EVENT_FILE = "data/event.csv";
-    private final String RECUR_FILE = "data/recurrent.csv";
+    // CSV keeps event.csv/recurrent.csv; BINARY keeps the memory-mapped data/events.bin
+    public enum StorageFormat { CSV, BINARY }
 
+    private final String DATA_DIR;
+    private final String EVENT_FILE;
+    private final String RECUR_FILE;
+    private final String JOURNAL_FILE;
+    private final String BINARY_FILE;
+
+    // Journal size that triggers folding it back into the CSV snapshot
+    private static final long COMPACT_THRESHOLD_BYTES = 4L * 1024 * 1024;
+
+    private final EventJournal journal;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "journal-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+    // Bumped by every full save so an older background compaction never overwrites it
+    private int snapshotGeneration = 0;
+
+    private final StorageFormat format;
+    private final BinaryEventStore binaryStore;
+
+    // Uses the binary store once one has been created, CSV otherwise
     public FileHandler() {
+        this(null);
+    }
+
+    public FileHandler(StorageFormat format) {
+        this("data", format);
+    }
+
+    // Keeps every file in the given directory instead of ./data
+    public FileHandler(String dataDir, StorageFormat format) {
+        DATA_DIR = dataDir;
+        EVENT_FILE = dataDir + "/event.csv";
+        RECUR_FILE = dataDir + "/recurrent.csv";
+        JOURNAL_FILE = dataDir + "/journal.log";
+        BINARY_FILE = dataDir + "/events.bin";
+        journal = new EventJournal(JOURNAL_FILE);
+        binaryStore = new BinaryEventStore(BINARY_FILE);
         File dir = new File(DATA_DIR);
         if (!dir.exists()) dir.mkdir();
+        if (format == null) format = binaryStore.exists() ? StorageFormat.BINARY : StorageFormat.CSV;
+        this.format = format;
+    }
+
+    public StorageFormat getFormat() { return format; }
+
+    // Full rewrite of the snapshot; everything in the journal is now covered by it
+    public synchronized void saveEvents(List<Event> events) throws IOException {
+        writeSnapshot(events);
+        journal.clear();
+        snapshotGeneration++;
+    }
+
+    private void writeSnapshot(List<Event> events) throws IOException {
+        if (format == StorageFormat.BINARY) {
+            binaryStore.saveEvents(events);
+            return;
+        }
+
+        // Write to temp files first so a crash never leaves a half-written snapshot behind
+        File eventTmp = new File(EVENT_FILE + ".tmp");
+        File recurTmp = new File(RECUR_FILE + ".tmp");
+        try (PrintWriter eventOut = new PrintWriter(new FileWriter(eventTmp));
+             PrintWriter recurOut = new PrintWriter(new FileWriter(recurTmp))) {
+            writeCsv(events, eventOut, recurOut);
+        }
+
+        Files.move(eventTmp.toPath(), Paths.get(EVENT_FILE), StandardCopyOption.REPLACE_EXISTING);
+        Files.move(recurTmp.toPath(), Paths.get(RECUR_FILE), StandardCopyOption.REPLACE_EXISTING);
     }
 
-    public void saveEvents(List<Event> events) throws IOException {
+    private void writeCsv(List<Event> events, PrintWriter eventOut, PrintWriter recurOut) {
         // 1. Save Basic Data to event.csv (with header)
-        try (PrintWriter pw = new PrintWriter(new FileWriter(EVENT_FILE))) {
-            pw.println("eventId,title,description,startDateTime,endDateTime");
-            for (Event e : events) {
-                pw.printf("%d,%s,%s,%s,%s%n",
+        eventOut.println("eventId,title,description,startDateTime,endDateTime");
+        for (Event e : events) {
+            eventOut.println(formatEventLine(e));
+        }
+
+        // 2. Save Recurring Data to recurrent.csv (with header)
+        recurOut.println("eventId,recurrentInterval,recurrentTimes,recurrentEndDate");
+        for (Event e : events) {
+            if (e.getFrequency() != Recurrence.Frequency.NONE) {
+                Recurrence r = e.getRecurrence();
+                recurOut.printf("%d,%s,%d,%s%n",
                     e.getId(),
-                    escapeCSV(e.getTitle()),
-                    escapeCSV(e.getDescription()),
-                        e.getStart().format(Event.FMT),
-                        e.getEnd().format(Event.FMT)
+                    r.formatInterval(),
+                    r.count,
+                    r.formatEndDate()
                 );
             }
         }
+    }
 
-        // 2. Save Recurring Data to recurrent.csv (with header)
-        try (PrintWriter pw = new PrintWriter(new FileWriter(RECUR_FILE))) {
-            pw.println("eventId,recurrentInterval,recurrentTimes,recurrentEndDate");
-            for (Event e : events) {
-                if (!"NONE".equalsIgnoreCase(e.getRecurType())) {
-                    String shortCode = convertToPdfFormat(e.getRecurType());
-                    pw.printf("%d,%s,%d,%s%n",
-                        e.getId(),
-                        shortCode,
-                        e.getRecurCount(),
-                        "0"
-                    );
+    // One event.csv row (also reused by the journal, month partitions and backups).
+    // Built directly rather than with String.format, which dominated writing large files.
+    String formatEventLine(Event e) {
+        return new StringBuilder(96)
+                .append(e.getId()).append(',')
+                .append(escapeCSV(e.getTitle())).append(',')
+                .append(escapeCSV(e.getDescription())).append(',')
+                .append(e.getStart().format(Event.FMT)).append(',')
+                .append(e.getEnd().format(Event.FMT))
+                .toString();
+    }
+
+    // --- JOURNAL ---
+    // Records: "U,<interval>,<times>,<event.csv row>,<end date>" for an add/update, "D,<eventId>" for a delete.
+    // Records written before the end date existed simply stop after the event row.
+    public void appendUpsert(Event e) throws IOException {
+        journal.append(upsertRecord(e));
+    }
+
+    // One journal record per event, written and synced as a single batch
+    public void appendUpserts(List<Event> events) throws IOException {
+        List<String> records = new ArrayList<>(events.size());
+        for (Event e : events) records.add(upsertRecord(e));
+        journal.appendAll(records);
+    }
+
+    private String upsertRecord(Event e) {
+        Recurrence r = e.getRecurrence();
+        return "U," + r.formatInterval() + "," + r.count + "," + formatEventLine(e) + "," + r.formatEndDate();
+    }
+
+    public void appendDelete(int eventId) throws IOException {
+        journal.append("D," + eventId);
+    }
+
+    public boolean journalNeedsCompaction() {
+        return journal.size() > COMPACT_THRESHOLD_BYTES;
+    }
+
+    // Rotates the journal and writes the given state as the new snapshot on a background thread.
+    // The caller passes a copy of its list taken at the same moment as the rotation.
+    public synchronized void compactJournalInBackground(List<Event> snapshot) throws IOException {
+        if (!journal.rotate()) return; // previous compaction still running
+        int generation = snapshotGeneration;
+        compactor.execute(() -> {
+            synchronized (this) {
+                if (generation != snapshotGeneration) return; // a full save already superseded it
+                try {
+                    writeSnapshot(snapshot);
+                    journal.discardRotated();
+                } catch (IOException e) {
+                    e.printStackTrace(); // rotated journal is kept and replayed on next start
                 }
             }
+        });
+    }
+
+    public void syncJournal() throws IOException {
+        journal.sync();
+    }
+
+    // Replays journal records over the snapshot. An update or delete drops every event with
+    // that id and an update re-adds it at the end, matching CalendarController.addOrUpdateEvent.
+    private List<Event> replayJournal(List<Event> snapshot) throws IOException {
+        Map<Integer, Event> touched = readJournal();
+        if (touched.isEmpty()) return snapshot;
+
+        List<Event> result = new ArrayList<>(snapshot.size() + touched.size());
+        for (Event e : snapshot) {
+            if (!touched.containsKey(e.getId())) result.add(e);
         }
+        for (Event e : touched.values()) {
+            if (e != null) result.add(e);
+        }
+        return result;
     }
 
-    public List<Event> loadEvents() throws IOException {
-        List<Event> list = new ArrayList<>();
-        File eFile = new File(EVENT_FILE);
-        File rFile = new File(RECUR_FILE);
+    // Final state of every id the journal mentions, in last-write order (null = deleted)
+    private Map<Integer, Event> readJournal() throws IOException {
+        Map<Integer, Event> touched = new LinkedHashMap<>();
+        for (Path file : journal.getFiles()) {
+            try (CsvReader reader = new CsvReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+                while (reader.next()) {
+                    if (reader.isBlankLine()) continue;
+                    try {
+                        String type = reader.getString(0);
+                        if (type.equals("D") && reader.fieldCount() >= 2) {
+                            int id = reader.getInt(1);
+                            touched.remove(id);
+                            touched.put(id, null);
+                        } else if (type.equals("U")) {
+                            Event e = Event.fromCSV(reader, 3);
+                            if (e == null) continue;
+                            e.setRecurrence(readRecurrence(reader, 1, 8));
+                            touched.remove(e.getId());
+                            touched.put(e.getId(), e);
+                        }
+                    } catch (RuntimeException ex) {
+                        System.err.println("Skipping bad journal record: " + reader.describe());
+                    }
+                }
+            }
+        }
+        return touched;
+    }
 
-        if (!eFile.exists()) return list;
+    // Snapshot plus any journal records written since it
+    public synchronized List<Event> loadEvents() throws IOException {
+        return replayJournal(loadSnapshot());
+    }
 
-        // 1. Read Basic Events
-        try (BufferedReader br = new BufferedReader(new FileReader(eFile))) {
-            String line = br.readLine(); // Skip header
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                Event e = Event.fromCSV(line);
-                if (e != null) list.add(e);
+    // Events with an occurrence in [from, to]. With the binary store this decodes only the
+    // records whose dates overlap the range instead of building the whole list.
+    public synchronized List<Event> queryRange(java.time.LocalDate from, java.time.LocalDate to) throws IOException {
+        if (format != StorageFormat.BINARY) {
+            List<Event> result = new ArrayList<>();
+            for (Event e : loadEvents()) {
+                if (e.occursBetween(from, to)) result.add(e);
             }
+            return result;
+        }
+
+        Map<Integer, Event> touched = readJournal();
+        List<Event> result = new ArrayList<>();
+        for (Event e : binaryStore.queryRange(from, to)) {
+            if (!touched.containsKey(e.getId())) result.add(e);
+        }
+        for (Event e : touched.values()) {
+            if (e != null && e.occursBetween(from, to)) result.add(e);
+        }
+        return result;
+    }
+
+    // One-shot migration: writes the current CSV data (plus journal) to data/events.bin.
+    // Later FileHandler instances pick the binary store up automatically.
+    public synchronized int convertToBinary() throws IOException {
+        List<Event> events = loadEvents();
+        binaryStore.saveEvents(events);
+        journal.clear();
+        snapshotGeneration++;
+        return events.size();
+    }
+
+    private List<Event> loadSnapshot() throws IOException {
+        if (format == StorageFormat.BINARY) return binaryStore.loadEvents();
+        return readCsv(new File(EVENT_FILE), new File(RECUR_FILE));
+    }
+
+    // An event.csv/recurrent.csv pair; either file may be missing
+    List<Event> readCsv(File eFile, File rFile) throws IOException {
+        List<Event> list = new ArrayList<>();
+        if (!eFile.exists()) return list;
+
+        // 1. Read Basic Events, keyed by id for the join below
+        IntHashMap<Event> byId = new IntHashMap<>();
+        try (Reader r = new FileReader(eFile)) {
+            readEventRows(r, list, byId);
         }
 
         // 2. Read Recurring Data and merge
         if (rFile.exists()) {
-            try (BufferedReader br = new BufferedReader(new FileReader(rFile))) {
-                String line = br.readLine(); // Skip header
-                while ((line = br.readLine()) != null) {
-                    if (line.trim().isEmpty()) continue;
-                    String[] parts = line.split(",");
-                    if (parts.length >= 3) {
-                        int id = Integer.parseInt(parts[0].trim());
-                        String interval = parts[1].trim();
-                        int count = Integer.parseInt(parts[2].trim());
-
-                        for (Event e : list) {
-                            if (e.getId() == id) {
-                                e.setRecurType(convertFromPdfFormat(interval));
-                                e.setRecurCount(count);
-                                break;
-                            }
-                        }
-                    }
-                }
+            try (Reader r = new FileReader(rFile)) {
+                readRecurrenceRows(r, byId);
             }
         }
         return list;
     }
 
-    // --- ZIP BACKUP ---
-    public void backup(String dest) throws IOException {
-        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(dest))) {
-            addToZip(EVENT_FILE, zos);
-            addToZip(RECUR_FILE, zos);
+    // Parses event.csv rows (after the header) into the list; the first event wins on duplicate ids
+    private void readEventRows(Reader in, List<Event> out, IntHashMap<Event> byId) throws IOException {
+        CsvReader reader = new CsvReader(in);
+        reader.next(); // Skip header
+        while (reader.next()) {
+            if (reader.isBlankLine()) continue;
+            Event e = Event.fromCSV(reader, 0);
+            if (e != null) {
+                out.add(e);
+                byId.putIfAbsent(e.getId(), e);
+            }
+        }
+    }
+
+    // Applies recurrent.csv rows (after the header) to the matching events
+    private void readRecurrenceRows(Reader in, IntHashMap<Event> byId) throws IOException {
+        CsvReader reader = new CsvReader(in);
+        reader.next(); // Skip header
+        while (reader.next()) {
+            if (reader.isBlankLine() || reader.fieldCount() < 3) continue;
+            try {
+                Event e = byId.get(reader.getInt(0));
+                if (e != null) e.setRecurrence(readRecurrence(reader, 1, 3));
+            } catch (RuntimeException ex) {
+                System.err.println("Error parsing recurrence line: " + reader.describe());
+            }
         }
     }
 
-    private void addToZip(String path, ZipOutputStream zos) throws IOException {
-        File file = new File(path);
-        if (!file.exists()) return;
-        
-        ZipEntry entry = new ZipEntry(file.getName());
-        zos.putNextEntry(entry);
-        Files.copy(file.toPath(), zos);
-        zos.closeEntry();
+    // recurrentInterval and recurrentTimes at the given field, plus the end date if the row has one
+    Recurrence readRecurrence(CsvReader reader, int intervalField, int endDateField) {
+        String endDate = reader.fieldCount() > endDateField ? reader.getString(endDateField) : "0";
+        return Recurrence.parse(reader.getString(intervalField), reader.getInt(intervalField + 1), endDate);
     }
 
+    // --- ZIP BACKUP ---
+    // Archives are written by BackupWriter straight from the controller's events
+
     // --- RESTORE with append option ---
     public void restore(String zipPath, boolean append) throws IOException {
         // Load existing events if appending
         List<Event> existingEvents = append ? loadEvents() : new ArrayList<>();
-        
-        // Temporary lists for imported data
+        List<Event> importedEvents = readBackup(zipPath);
+
+        // Merge or replace
+        if (append) {
+            existingEvents.addAll(importedEvents);
+            saveEvents(existingEvents);
+        } else {
+            saveEvents(importedEvents);
+        }
+    }
+
+    // Events held in a backup archive, without touching the data files
+    public List<Event> readBackup(String zipPath) throws IOException {
         List<Event> importedEvents = new ArrayList<>();
-        Map<Integer, String[]> importedRecurrences = new HashMap<>();
-        
-        // Extract from ZIP
+        IntHashMap<Event> importedById = new IntHashMap<>();
+
+        // Extract from ZIP (the archive may list recurrent.csv before event.csv)
+        byte[] recurrenceData = null;
         try (ZipInputStream zis = new ZipInputStream(new FileInputStream(zipPath))) {
             ZipEntry entry;
             while ((entry = zis.getNextEntry()) != null) {
                 String fileName = entry.getName();
-                
+
                 if (fileName.equals("event.csv")) {
-                    BufferedReader br = new BufferedReader(new InputStreamReader(zis));
-                    String line = br.readLine(); // Skip header
-                    while ((line = br.readLine()) != null) {
-                        if (line.trim().isEmpty()) continue;
-                        Event e = Event.fromCSV(line);
-                        if (e != null) importedEvents.add(e);
-                    }
+                    readEventRows(new InputStreamReader(zis), importedEvents, importedById);
                 } else if (fileName.equals("recurrent.csv")) {
-                    BufferedReader br = new BufferedReader(new InputStreamReader(zis));
-                    String line = br.readLine(); // Skip header
-                    while ((line = br.readLine()) != null) {
-                        if (line.trim().isEmpty()) continue;
-                        String[] parts = line.split(",");
-                        if (parts.length >= 3) {
-                            int id = Integer.parseInt(parts[0].trim());
-                            importedRecurrences.put(id, parts);
-                        }
-                    }
+                    recurrenceData = zis.readAllBytes();
                 }
                 zis.closeEntry();
             }
         }
-        
+
         // Apply recurrence data to imported events
-        for (Event e : importedEvents) {
-            if (importedRecurrences.containsKey(e.getId())) {
-                String[] recurData = importedRecurrences.get(e.getId());
-                String interval = recurData[1].trim();
-                int count = Integer.parseInt(recurData[2].trim());
-                e.setRecurType(convertFromPdfFormat(interval));
-                e.setRecurCount(count);
-            }
-        }
-        
-        // Merge or replace
-        if (append) {
-            existingEvents.addAll(importedEvents);
-            saveEvents(existingEvents);
-        } else {
-            saveEvents(importedEvents);
+        if (recurrenceData != null) {
+            readRecurrenceRows(new InputStreamReader(new ByteArrayInputStream(recurrenceData)), importedById);
         }
+
+        // Archives with a manifest are checked month by month before anything is restored
+        BackupWriter.Manifest manifest = BackupWriter.readManifest(zipPath);
+        if (manifest != null) manifest.verify(importedEvents);
+        return importedEvents;
     }
     
     // Overloaded version for backward compatibility
@@ -171,24 +362,15 @@ public class FileHandler {
     }
 
     // --- Helper Methods ---
+    // Quotes a field holding a comma, quote, line break or edge whitespace (RFC 4180)
     private String escapeCSV(String data) {
         if (data == null) return "";
-        return data.replace(",", ";");
-    }
-
-    private String convertToPdfFormat(String uiType) {
-        switch (uiType.toUpperCase()) {
-            case "DAILY": return "1d";
-            case "WEEKLY": return "1w";
-            case "MONTHLY": return "1m";
-            default: return "0";
+        boolean needsQuotes = !data.isEmpty() && (data.charAt(0) <= ' ' || data.charAt(data.length() - 1) <= ' ');
+        for (int i = 0; i < data.length() && !needsQuotes; i++) {
+            char c = data.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
         }
+        if (!needsQuotes) return data;
+        return "\"" + data.replace("\"", "\"\"") + "\"";
     }
-
-    private String convertFromPdfFormat(String pdfType) {
-        if (pdfType.contains("d")) return "DAILY";
-        if (pdfType.contains("w")) return "WEEKLY";
-        if (pdfType.contains("m")) return "MONTHLY";
-        return "NONE";
-    }
-}
\ No newline at end of file
+}
@@ -6,15 +6,26 @@ import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.io.File;
+import java.util.zip.Deflater;
 
 public class LaunchPage extends JFrame implements ActionListener {
 
     private CalendarController controller;
 
+    // Search runs in the background and streams into a reusable, non-modal results window
+    private final SearchService searchService = new SearchService();
+    private JDialog searchDialog;
+    private SearchResultModel searchModel;
+    private JLabel searchStatus, searchLatency;
+    private JButton searchCancel;
+
     // UI Components
     JPanel headerPanel, contentPanel;
     TransitionPanel bodyPanel;
+    CalendarGrid calendarGrid; // reused across navigation, only its model changes
+    DayTimeline dayTimeline;
     JComboBox<CalendarController.ViewMode> viewToggle;
     JComboBox<CalendarController.TimeScale> scaleToggle;
     JComboBox<String> monthSelector, yearSelector;
@@ -42,15 +53,36 @@ public class LaunchPage extends JFrame implements ActionListener {
     private final DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
     public LaunchPage() {
-        this.controller = new CalendarController();
+        this(CalendarController.StorageMode.JOURNAL);
+    }
+
+    public LaunchPage(CalendarController.StorageMode storageMode) {
+        this.controller = new CalendarController(storageMode);
         this.setSize(1100, 800);
         this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+
+        // Saves run in the background; surface failures here and flush before the app exits
+        controller.setPersistenceErrorListener(ex -> SwingUtilities.invokeLater(() ->
+                JOptionPane.showMessageDialog(this, "Could not save your changes: " + ex.getMessage(),
+                        "Save Error", JOptionPane.ERROR_MESSAGE)));
+        // Reminders fire on their own thread; alert on the EDT without blocking it
+        controller.setReminderListener(o -> SwingUtilities.invokeLater(() -> showReminder(o)));
+        this.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                controller.shutdown();
+            }
+        });
         this.setTitle("Personal Calendar - Multi-View Edition");
 
         setupHeader();
 
         bodyPanel = new TransitionPanel();
         contentPanel = new JPanel(new BorderLayout());
+        calendarGrid = new CalendarGrid(dayFont, labelFont, NO_CONFLICT_BG, CONFLICT_BG, TODAY_BORDER);
+        calendarGrid.setDayListener(this::showDayEvents);
+        dayTimeline = new DayTimeline(EVENT_BG, EVENT_BORDER);
+        dayTimeline.setEventListener(o -> createOrUpdateEvent(o.event, o.getDate()));
         bodyPanel.add(new JScrollPane(contentPanel), BorderLayout.CENTER);
 
         this.add(headerPanel, BorderLayout.NORTH);
@@ -142,6 +174,8 @@ public class LaunchPage extends JFrame implements ActionListener {
         JMenuItem itemSearch = new JMenuItem("🔍 Search Events");
         JMenuItem itemWeekList = new JMenuItem("📋 Week List View");
         JMenuItem itemNotifications = new JMenuItem("🔔 View Notifications");
+        JMenuItem itemConflicts = new JMenuItem("⚠ Conflict Report");
+        JMenuItem itemRangeReport = new JMenuItem("📄 Export Range Report");
         JMenuItem itemBackup = new JMenuItem("💾 Backup Data");
         JMenuItem itemRestore = new JMenuItem("📥 Restore Data");
 
@@ -149,6 +183,8 @@ public class LaunchPage extends JFrame implements ActionListener {
         itemSearch.addActionListener(e -> handleSearch());
         itemWeekList.addActionListener(e -> showWeekListView());
         itemNotifications.addActionListener(e -> showUpcomingNotifications());
+        itemConflicts.addActionListener(e -> showConflictReport());
+        itemRangeReport.addActionListener(e -> handleRangeReport());
         itemBackup.addActionListener(e -> handleBackup());
         itemRestore.addActionListener(e -> handleRestore());
 
@@ -157,6 +193,8 @@ public class LaunchPage extends JFrame implements ActionListener {
         actionsMenu.add(itemSearch);
         actionsMenu.add(itemWeekList);
         actionsMenu.add(itemNotifications);
+        actionsMenu.add(itemConflicts);
+        actionsMenu.add(itemRangeReport);
         actionsMenu.addSeparator();
         actionsMenu.add(itemBackup);
         actionsMenu.add(itemRestore);
@@ -202,11 +240,19 @@ public class LaunchPage extends JFrame implements ActionListener {
     }
 
     private void refreshUI() {
-        contentPanel.removeAll();
-
         String dateString = controller.getReferenceDate().format(dateFormat);
         this.setTitle("Calendar - " + dateString + " (" + controller.getMode() + ")");
 
+        // The month/week grid stays in place; only its model is swapped
+        if (controller.getMode() == CalendarController.ViewMode.CALENDAR
+                && controller.getScale() != CalendarController.TimeScale.DAY
+                && contentPanel.getComponentCount() == 1 && contentPanel.getComponent(0) == calendarGrid) {
+            renderCalendarView();
+            contentPanel.revalidate(); // row count may differ between months
+            return;
+        }
+
+        contentPanel.removeAll();
         if (controller.getMode() == CalendarController.ViewMode.CALENDAR) {
             renderCalendarView();
         } else {
@@ -219,43 +265,35 @@ public class LaunchPage extends JFrame implements ActionListener {
 
     // --- CALENDAR VIEW RENDERING ---
     private void renderCalendarView() {
+        // One published version for the whole render, whatever lands meanwhile
+        CalendarState state = controller.getState();
+
         // If viewing a single DAY, show timeline view
-        if (controller.getScale() == CalendarController.TimeScale.DAY) {
+        if (state.scale == CalendarController.TimeScale.DAY) {
             renderDayTimelineView();
             return;
         }
 
         // Otherwise show grid view (WEEK or MONTH)
-        JPanel grid = new JPanel(new GridLayout(0, 7, 2, 2));
-        String[] days = {"Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat"};
-        for (String d : days) {
-            JLabel l = new JLabel(d, SwingConstants.CENTER);
-            l.setFont(labelFont);
-            grid.add(l);
-        }
+        LocalDate start = state.getStartOfRange();
+        int length = (state.scale == CalendarController.TimeScale.MONTH) ?
+                state.referenceDate.lengthOfMonth() : 7;
 
-        LocalDate start = controller.getStartOfRange();
-        int length = (controller.getScale() == CalendarController.TimeScale.MONTH) ?
-                controller.getReferenceDate().lengthOfMonth() : 7;
-
-        if (controller.getScale() == CalendarController.TimeScale.MONTH) {
-            int startPadding = controller.getReferenceDate().withDayOfMonth(1).getDayOfWeek().getValue() % 7;
-            for (int i = 0; i < startPadding; i++) grid.add(new JLabel(""));
+        int startPadding = 0;
+        if (state.scale == CalendarController.TimeScale.MONTH) {
+            startPadding = state.referenceDate.withDayOfMonth(1).getDayOfWeek().getValue() % 7;
         }
 
-        for (int i = 0; i < length; i++) {
-            LocalDate date = start.plusDays(i);
-            JButton dayBtn = createDayButton(date);
-            dayBtn.setFocusable(false);
-            grid.add(dayBtn);
-        }
-        contentPanel.add(grid, BorderLayout.CENTER);
+        // Expand the whole visible range once, then draw every cell from the snapshot
+        RangeSnapshot snapshot = controller.materializeRange(start, start.plusDays(length - 1));
+        calendarGrid.setRange(start, length, startPadding, snapshot);
+        if (calendarGrid.getParent() != contentPanel) contentPanel.add(calendarGrid, BorderLayout.CENTER);
     }
 
     // Render full-screen day timeline view when DAY scale is selected
     private void renderDayTimelineView() {
         LocalDate date = controller.getReferenceDate();
-        List<Event> dayEvents = controller.getEventsOnDate(date);
+        List<Occurrence> dayEvents = controller.materializeRange(date, date).getOccurrences(date);
 
         JPanel mainPanel = new JPanel(new BorderLayout());
 
@@ -279,18 +317,9 @@ public class LaunchPage extends JFrame implements ActionListener {
 
         mainPanel.add(headerPanel, BorderLayout.NORTH);
 
-        // Timeline panel
-        JPanel timelinePanel = new JPanel();
-        timelinePanel.setLayout(new BoxLayout(timelinePanel, BoxLayout.Y_AXIS));
-        timelinePanel.setBackground(Color.WHITE);
-
-        // Create 24-hour timeline
-        for (int hour = 0; hour < 24; hour++) {
-            JPanel hourSlot = createLargeHourSlot(hour, dayEvents, date);
-            timelinePanel.add(hourSlot);
-        }
-
-        JScrollPane scrollPane = new JScrollPane(timelinePanel);
+        // Timeline, painted by a single component
+        dayTimeline.setDay(date, dayEvents);
+        JScrollPane scrollPane = new JScrollPane(dayTimeline);
         mainPanel.add(scrollPane, BorderLayout.CENTER);
 
         // Footer with event count and current time
@@ -314,125 +343,6 @@ public class LaunchPage extends JFrame implements ActionListener {
         contentPanel.add(mainPanel, BorderLayout.CENTER);
     }
 
-    // Create a larger hour slot for full-screen day view
-    private JPanel createLargeHourSlot(int hour, List<Event> dayEvents, LocalDate date) {
-        JPanel slot = new JPanel(new BorderLayout());
-        slot.setBorder(BorderFactory.createMatteBorder(1, 0, 0, 0, Color.LIGHT_GRAY));
-        slot.setBackground(Color.WHITE);
-        slot.setMaximumSize(new Dimension(Integer.MAX_VALUE, 80));
-        slot.setPreferredSize(new Dimension(800, 80));
-
-        // Highlight current hour if viewing today
-        if (date.equals(LocalDate.now()) && LocalTime.now().getHour() == hour) {
-            slot.setBackground(new Color(255, 255, 220)); // Light yellow
-        }
-
-        // Time label (24-hour format)
-        JPanel timePanel = new JPanel(new BorderLayout());
-        timePanel.setBackground(slot.getBackground());
-        timePanel.setPreferredSize(new Dimension(80, 80));
-
-        JLabel timeLabel = new JLabel(String.format("%02d:00", hour), SwingConstants.CENTER);
-        timeLabel.setFont(new Font("Monospaced", Font.BOLD, 16));
-        timeLabel.setForeground(new Color(100, 100, 100));
-        timePanel.add(timeLabel, BorderLayout.CENTER);
-
-        slot.add(timePanel, BorderLayout.WEST);
-
-        // Event panel (shows events during this hour)
-        JPanel eventPanel = new JPanel();
-        eventPanel.setLayout(new BoxLayout(eventPanel, BoxLayout.Y_AXIS));
-        eventPanel.setBackground(slot.getBackground());
-        eventPanel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
-
-        // Find events that occur during this hour
-        boolean hasEvents = false;
-        for (Event event : dayEvents) {
-            int eventStartHour = event.getStart().getHour();
-            int eventEndHour = event.getEnd().getHour();
-
-            // Check if event occurs during this hour
-            if (eventStartHour <= hour && hour < eventEndHour) {
-                hasEvents = true;
-                JPanel eventBar = new JPanel(new BorderLayout());
-                eventBar.setBackground(EVENT_BG);
-                eventBar.setBorder(BorderFactory.createCompoundBorder(
-                        BorderFactory.createLineBorder(EVENT_BORDER, 2),
-                        BorderFactory.createEmptyBorder(5, 8, 5, 8)
-                ));
-                eventBar.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
-
-                // Make event clickable
-                eventBar.addMouseListener(new MouseAdapter() {
-                    @Override
-                    public void mouseClicked(MouseEvent e) {
-                        createOrUpdateEvent(event, date);
-                    }
-                });
-
-                JPanel infoPanel = new JPanel(new BorderLayout());
-                infoPanel.setOpaque(false);
-
-                String eventText = event.getTitle();
-                JLabel titleLabel = new JLabel(eventText);
-                titleLabel.setFont(new Font("Arial", Font.BOLD, 14));
-                infoPanel.add(titleLabel, BorderLayout.NORTH);
-
-                String timeText = event.getStart().toLocalTime() + " - " + event.getEnd().toLocalTime();
-                JLabel timeInfoLabel = new JLabel(timeText);
-                timeInfoLabel.setFont(new Font("Arial", Font.PLAIN, 11));
-                timeInfoLabel.setForeground(new Color(80, 80, 80));
-                infoPanel.add(timeInfoLabel, BorderLayout.CENTER);
-
-                eventBar.add(infoPanel, BorderLayout.CENTER);
-
-                // Add recurring indicator
-                if (!"NONE".equals(event.getRecurType())) {
-                    JLabel recurLabel = new JLabel("  [R]  ");
-                    recurLabel.setFont(new Font("Arial", Font.BOLD, 12));
-                    recurLabel.setForeground(new Color(255, 140, 0));
-                    eventBar.add(recurLabel, BorderLayout.EAST);
-                }
-
-                eventPanel.add(eventBar);
-                eventPanel.add(Box.createVerticalStrut(3));
-            }
-        }
-
-        // Show empty slot message if no events
-        if (!hasEvents) {
-            JLabel emptyLabel = new JLabel("No events");
-            emptyLabel.setFont(new Font("Arial", Font.ITALIC, 11));
-            emptyLabel.setForeground(Color.GRAY);
-            eventPanel.add(emptyLabel);
-        }
-
-        slot.add(eventPanel, BorderLayout.CENTER);
-        return slot;
-    }
-
-    private JButton createDayButton(LocalDate date) {
-        List<Event> dayEvents = controller.getEventsOnDate(date);
-
-        String text = "<html><center>" + date.getDayOfMonth();
-        if (!dayEvents.isEmpty()) text += "<br><font size='2'>● " + dayEvents.size() + " Event(s)</font>";
-        text += "</center></html>";
-
-        JButton btn = new JButton(text);
-        btn.setFocusable(false);
-        btn.setFont(dayFont);
-
-        if (date.equals(LocalDate.now())) btn.setBorder(BorderFactory.createLineBorder(TODAY_BORDER, 5));
-
-        if (!dayEvents.isEmpty()) {
-            boolean conflict = controller.checkForConflictOnDate(dayEvents);
-            btn.setBackground(conflict ? CONFLICT_BG : NO_CONFLICT_BG);
-        }
-
-        btn.addActionListener(e -> showDayEvents(date));
-        return btn;
-    }
-
     // --- LIST VIEW RENDERING ---
     private void renderListView() {
         JPanel listPanel = new JPanel();
@@ -457,11 +367,11 @@ public class LaunchPage extends JFrame implements ActionListener {
         row.setBorder(BorderFactory.createEtchedBorder());
 
         String timeInfo = e.getStart().toLocalTime() + " - " + e.getEnd().toLocalTime();
-        String recurInfo = !"NONE".equals(e.getRecurType()) ? " [" + e.getRecurType() + "]" : "";
+        String recurInfo = e.getFrequency() != Recurrence.Frequency.NONE ? " [" + e.getRecurType() + "]" : "";
         JLabel title = new JLabel("<html><b>" + e.getTitle() + "</b> (" + timeInfo + ")" + recurInfo + "</html>");
         title.setBorder(BorderFactory.createEmptyBorder(5,10,5,10));
 
-        if (controller.hasConflict(e)) {
+        if (controller.hasConflict(e, controller.getStartOfRange(), controller.getEndOfRange())) {
             row.setBackground(new Color(255, 200, 200));
         }
 
@@ -549,18 +459,11 @@ public class LaunchPage extends JFrame implements ActionListener {
         headerPanel.add(headerLabel);
         mainPanel.add(headerPanel, BorderLayout.NORTH);
 
-        // Timeline panel
-        JPanel timelinePanel = new JPanel();
-        timelinePanel.setLayout(new BoxLayout(timelinePanel, BoxLayout.Y_AXIS));
-        timelinePanel.setBackground(Color.WHITE);
-
-        // Create 24-hour timeline
-        for (int hour = 0; hour < 24; hour++) {
-            JPanel hourSlot = createHourSlot(hour, dayEvents);
-            timelinePanel.add(hourSlot);
-        }
+        // Timeline, painted by the same component as the day view, placed by occurrence minutes
+        DayTimeline timeline = new DayTimeline(EVENT_BG, EVENT_BORDER);
+        timeline.setDay(date, controller.materializeRange(date, date).getOccurrences(date));
 
-        JScrollPane scrollPane = new JScrollPane(timelinePanel);
+        JScrollPane scrollPane = new JScrollPane(timeline);
         scrollPane.setPreferredSize(new Dimension(580, 400));
         mainPanel.add(scrollPane, BorderLayout.CENTER);
 
@@ -575,62 +478,6 @@ public class LaunchPage extends JFrame implements ActionListener {
         return mainPanel;
     }
 
-    // Create a single hour slot in the timeline
-    private JPanel createHourSlot(int hour, List<Event> dayEvents) {
-        JPanel slot = new JPanel(new BorderLayout());
-        slot.setBorder(BorderFactory.createMatteBorder(1, 0, 0, 0, Color.LIGHT_GRAY));
-        slot.setBackground(Color.WHITE);
-        slot.setMaximumSize(new Dimension(Integer.MAX_VALUE, 60));
-        slot.setPreferredSize(new Dimension(550, 60));
-
-        // Time label (24-hour format)
-        JLabel timeLabel = new JLabel(String.format("%02d:00", hour));
-        timeLabel.setFont(new Font("Monospaced", Font.BOLD, 14));
-        timeLabel.setForeground(new Color(100, 100, 100));
-        timeLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
-        slot.add(timeLabel, BorderLayout.WEST);
-
-        // Event panel (shows events during this hour)
-        JPanel eventPanel = new JPanel();
-        eventPanel.setLayout(new BoxLayout(eventPanel, BoxLayout.Y_AXIS));
-        eventPanel.setBackground(Color.WHITE);
-
-        // Find events that occur during this hour
-        for (Event event : dayEvents) {
-            int eventStartHour = event.getStart().getHour();
-            int eventEndHour = event.getEnd().getHour();
-
-            // Check if event occurs during this hour
-            if (eventStartHour <= hour && hour < eventEndHour) {
-                JPanel eventBar = new JPanel(new BorderLayout());
-                eventBar.setBackground(new Color(173, 216, 230));
-                eventBar.setBorder(BorderFactory.createCompoundBorder(
-                        BorderFactory.createLineBorder(new Color(100, 149, 237), 2),
-                        BorderFactory.createEmptyBorder(3, 5, 3, 5)
-                ));
-
-                String eventText = event.getTitle() + " (" + event.getStart().toLocalTime() + " - " + event.getEnd().toLocalTime() + ")";
-                JLabel eventLabel = new JLabel(eventText);
-                eventLabel.setFont(new Font("Arial", Font.PLAIN, 12));
-                eventBar.add(eventLabel, BorderLayout.CENTER);
-
-                // Add recurring indicator
-                if (!"NONE".equals(event.getRecurType())) {
-                    JLabel recurLabel = new JLabel("[R]");
-                    recurLabel.setFont(new Font("Arial", Font.BOLD, 10));
-                    recurLabel.setForeground(new Color(255, 140, 0));
-                    eventBar.add(recurLabel, BorderLayout.EAST);
-                }
-
-                eventPanel.add(eventBar);
-                eventPanel.add(Box.createVerticalStrut(2));
-            }
-        }
-
-        slot.add(eventPanel, BorderLayout.CENTER);
-        return slot;
-    }
-
     private void createOrUpdateEvent(Event existing, LocalDate targetDate) {
         JTextField titleField = new JTextField(existing != null ? existing.getTitle() : "");
         JTextField descField = new JTextField(existing != null ? existing.getDescription() : "");
@@ -639,6 +486,10 @@ public class LaunchPage extends JFrame implements ActionListener {
         JComboBox<String> recurBox = new JComboBox<>(new String[]{"NONE", "DAILY", "WEEKLY", "MONTHLY"});
         if (existing != null) recurBox.setSelectedItem(existing.getRecurType());
         JTextField countField = new JTextField(existing != null ? String.valueOf(existing.getRecurCount()) : "0");
+        Recurrence rule = existing != null ? existing.getRecurrence() : Recurrence.NONE;
+        JTextField intervalField = new JTextField(String.valueOf(rule.interval));
+        JTextField daysField = new JTextField(Recurrence.formatDays(rule.byDay));
+        JTextField untilField = new JTextField(rule.until != null ? rule.until.toString() : "");
 
         Object[] message = {
                 "Title:", titleField,
@@ -646,7 +497,10 @@ public class LaunchPage extends JFrame implements ActionListener {
                 "Start (HH:mm):", startField,
                 "End (HH:mm):", endField,
                 "Repeat:", recurBox,
-                "Times:", countField
+                "Every (1 = every day/week/month):", intervalField,
+                "On days (weekly, e.g. MO/WE/FR):", daysField,
+                "Times:", countField,
+                "Until (YYYY-MM-DD, optional):", untilField
         };
 
         if (JOptionPane.showConfirmDialog(this, message, "Event Details", JOptionPane.OK_CANCEL_OPTION) == JOptionPane.OK_OPTION) {
@@ -662,14 +516,19 @@ public class LaunchPage extends JFrame implements ActionListener {
                 int id = (existing != null) ? existing.getId() : controller.getNextEventId();
                 String recurType = (String)recurBox.getSelectedItem();
                 int count = Integer.parseInt(countField.getText());
+                int interval = Integer.parseInt(intervalField.getText().trim());
+                String untilText = untilField.getText().trim();
+                LocalDate until = untilText.isEmpty() ? null : LocalDate.parse(untilText);
+                Recurrence recurrence = new Recurrence(Recurrence.frequencyOf(recurType), interval,
+                        Recurrence.parseDays(daysField.getText()), count, until);
 
-                Event newEvent = new Event(id, titleField.getText(), descField.getText(), startDT, endDT, recurType, count);
+                Event newEvent = new Event(id, titleField.getText(), descField.getText(), startDT, endDT, recurrence);
 
                 controller.addOrUpdateEvent(newEvent);
                 refreshUI();
                 JOptionPane.showMessageDialog(this, "Event saved successfully!");
             } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, "Error: Check time format (HH:mm)");
+                JOptionPane.showMessageDialog(this, "Error: Check time format (HH:mm), numbers and the until date (YYYY-MM-DD)");
             }
         }
     }
@@ -679,12 +538,12 @@ public class LaunchPage extends JFrame implements ActionListener {
         int choice = JOptionPane.showOptionDialog(this, "Select Search Type", "Search",
                 JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
 
-        // CHANGE: Update the list type to SearchMatch
-        List<CalendarController.SearchMatch> results = new ArrayList<>();
+        // Opened by the search's first background page, not here
+        Callable<SearchCursor> results = null;
 
         if (choice == 0) {
             String query = JOptionPane.showInputDialog(this, "Enter event title or description:");
-            if (query != null) results = controller.searchEvents(query);
+            if (query != null) results = () -> controller.openSearch(query);
 
         } else if (choice == 1) {
             JTextField startField = new JTextField(LocalDate.now().toString());
@@ -699,7 +558,7 @@ public class LaunchPage extends JFrame implements ActionListener {
                 try {
                     LocalDate start = LocalDate.parse(startField.getText());
                     LocalDate end = LocalDate.parse(endField.getText());
-                    results = controller.searchEventsByDate(start, end);
+                    results = () -> controller.openSearchByDate(start, end);
                 } catch (Exception ex) {
                     JOptionPane.showMessageDialog(this, "Invalid date format. Use YYYY-MM-DD.");
                     return;
@@ -707,38 +566,137 @@ public class LaunchPage extends JFrame implements ActionListener {
             }
         }
 
-        if (choice != 2) {
+        if (results != null) {
             displaySearchResults(results);
         }
     }
 
+    // Shows matches in a non-modal results window, a page at a time: the search is opened and
+    // its first page fetched in the background straight away, and the next page whenever the list
+    // is scrolled near its end. The window is reused, and a new search ends whatever the previous
+    // one was still doing.
+    private void displaySearchResults(Callable<SearchCursor> results) {
+        if (searchDialog == null) createSearchDialog();
+
+        searchModel.clear();
+        searchStatus.setText("Searching...");
+        searchCancel.setEnabled(true);
+        searchDialog.setVisible(true);
+
+        searchService.search(results, new SearchService.Listener() {
+            private long total = 0;
+
+            @Override
+            public void onOpened(long total) {
+                this.total = total;
+                if (total > 0) searchStatus.setText("Searching " + total + " occurrence(s)...");
+            }
 
-    private void displaySearchResults(List<CalendarController.SearchMatch> results) {
-        if (results.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "No events found.");
-        } else {
-            StringBuilder sb = new StringBuilder("Found " + results.size() + " occurrence(s):\n\n");
-            for (CalendarController.SearchMatch match : results) {
+            @Override
+            public void onResults(List<CalendarController.SearchMatch> page) {
+                searchModel.addAll(page);
+                if (searchService.isSearching()) {
+                    searchStatus.setText("Showing " + searchModel.getSize() + " of " + total + " occurrence(s), scroll for more");
+                }
+            }
+
+            @Override
+            public void onDone(long count, boolean cancelled) {
+                searchCancel.setEnabled(false);
+                if (cancelled) {
+                    searchStatus.setText(total > 0 ? "Stopped after " + count + " of " + total + " occurrence(s)" : "Search stopped");
+                } else {
+                    searchStatus.setText(count > 0 ? "Found " + count + " occurrence(s)" : "No events found.");
+                }
+                searchLatency.setText(String.format("Latency over %d searches - first page p50 %.0f / p90 %.0f / p99 %.0f ms, "
+                                + "any page p50 %.0f / p90 %.0f / p99 %.0f ms",
+                        searchService.getSampleCount(),
+                        searchService.getFirstResultMillis(50), searchService.getFirstResultMillis(90),
+                        searchService.getFirstResultMillis(99), searchService.getPageMillis(50),
+                        searchService.getPageMillis(90), searchService.getPageMillis(99)));
+            }
+        });
+    }
+
+    private void createSearchDialog() {
+        searchModel = new SearchResultModel();
+        JList<CalendarController.SearchMatch> list = new JList<>(searchModel);
+        list.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        list.setFixedCellHeight(list.getFontMetrics(list.getFont()).getHeight() + 2); // no per-row measuring
+        list.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> l, Object value, int i, boolean selected, boolean focus) {
+                CalendarController.SearchMatch match = (CalendarController.SearchMatch) value;
                 Event e = match.event;
                 // Use the specific date found in the search match
-                sb.append("• ").append(match.date).append(" ")
-                        .append(e.getStart().toLocalTime()).append(" - ")
-                        .append(e.getTitle());
+                String text = "• " + match.date + " " + e.getStart().toLocalTime() + " - " + e.getTitle();
+                if (e.getFrequency() != Recurrence.Frequency.NONE) text += " [" + e.getRecurType() + "]";
+                return super.getListCellRendererComponent(l, text, i, selected, focus);
+            }
+        });
+        JScrollPane scrollPane = new JScrollPane(list);
+        scrollPane.setPreferredSize(new Dimension(500, 400));
+        // Ask for the next page once the view gets within a screen of the last loaded row
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(ev -> {
+            BoundedRangeModel range = scrollPane.getVerticalScrollBar().getModel();
+            if (range.getValue() + 2 * range.getExtent() >= range.getMaximum()) searchService.fetchMore();
+        });
 
-                if (!"NONE".equals(e.getRecurType())) {
-                    sb.append(" [").append(e.getRecurType()).append("]");
-                }
-                sb.append("\n");
+        searchStatus = new JLabel();
+        searchLatency = new JLabel();
+        searchLatency.setFont(searchLatency.getFont().deriveFont(10f));
+        searchCancel = new JButton("Cancel");
+        searchCancel.addActionListener(ev -> searchService.cancel());
+        JButton closeBtn = new JButton("Close");
+        closeBtn.addActionListener(ev -> searchDialog.setVisible(false));
+
+        JPanel nav = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        nav.add(searchCancel);
+        nav.add(closeBtn);
+        JPanel south = new JPanel(new BorderLayout());
+        south.add(searchLatency, BorderLayout.CENTER);
+        south.add(nav, BorderLayout.EAST);
+        JPanel panel = new JPanel(new BorderLayout(0, 5));
+        panel.setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
+        panel.add(searchStatus, BorderLayout.NORTH);
+        panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(south, BorderLayout.SOUTH);
+
+        searchDialog = new JDialog(this, "Search Results", false);
+        searchDialog.setContentPane(panel);
+        searchDialog.pack();
+        searchDialog.setLocationRelativeTo(this);
+        searchDialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                searchService.cancel(); // nobody is looking at the rest
             }
+        });
+    }
 
-            JTextArea textArea = new JTextArea(sb.toString());
-            textArea.setEditable(false);
-            textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
-            JScrollPane scrollPane = new JScrollPane(textArea);
-            scrollPane.setPreferredSize(new Dimension(500, 400));
+    // Backs the results list; each page is one interval-added event instead of one per row
+    private static class SearchResultModel extends AbstractListModel<CalendarController.SearchMatch> {
+        private final List<CalendarController.SearchMatch> matches = new ArrayList<>();
 
-            JOptionPane.showMessageDialog(this, scrollPane, "Search Results", JOptionPane.PLAIN_MESSAGE);
+        void addAll(List<CalendarController.SearchMatch> page) {
+            if (page.isEmpty()) return;
+            int first = matches.size();
+            matches.addAll(page);
+            fireIntervalAdded(this, first, matches.size() - 1);
         }
+
+        void clear() {
+            int size = matches.size();
+            if (size == 0) return;
+            matches.clear();
+            fireIntervalRemoved(this, 0, size - 1);
+        }
+
+        @Override
+        public int getSize() { return matches.size(); }
+
+        @Override
+        public CalendarController.SearchMatch getElementAt(int index) { return matches.get(index); }
     }
 
     private void showWeekListView() {
@@ -795,25 +753,154 @@ public class LaunchPage extends JFrame implements ActionListener {
         JOptionPane.showMessageDialog(this, scrollPane, "Event Notifications", JOptionPane.INFORMATION_MESSAGE);
     }
 
+    private void showReminder(Occurrence o) {
+        long minutesUntil = Math.max(0, java.time.Duration.between(LocalDateTime.now(), o.start).toMinutes());
+        String message = o.event.getTitle() + "\n"
+                + "Time: " + o.start.toLocalDate() + " " + o.start.toLocalTime() + "\n"
+                + "Starts in " + minutesUntil + "m";
+
+        // Non-modal so several reminders can stack up without holding the calendar hostage
+        JOptionPane pane = new JOptionPane(message, JOptionPane.INFORMATION_MESSAGE);
+        JDialog dialog = pane.createDialog(this, "Reminder");
+        dialog.setModal(false);
+        dialog.setVisible(true);
+    }
+
+    private void showConflictReport() {
+        JTextField startField = new JTextField(controller.getStartOfRange().toString());
+        JTextField endField = new JTextField(controller.getEndOfRange().toString());
+        Object[] message = {
+                "Start Date (YYYY-MM-DD):", startField,
+                "End Date (YYYY-MM-DD):", endField
+        };
+
+        if (JOptionPane.showConfirmDialog(this, message, "Conflict Report", JOptionPane.OK_CANCEL_OPTION) != JOptionPane.OK_OPTION) return;
+
+        List<ConflictDetector.Conflict> conflicts;
+        try {
+            conflicts = controller.getConflicts(LocalDate.parse(startField.getText()), LocalDate.parse(endField.getText()));
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "Invalid date format. Use YYYY-MM-DD.");
+            return;
+        }
+
+        if (conflicts.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No conflicts found.", "Conflict Report", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder("Found " + conflicts.size() + " conflict(s):\n\n");
+        for (ConflictDetector.Conflict c : conflicts) {
+            sb.append("• ").append(c.getOverlapStart().toLocalDate()).append(" ")
+                    .append(c.getOverlapStart().toLocalTime()).append(" - ").append(c.getOverlapEnd().toLocalTime())
+                    .append(": ").append(c.first.event.getTitle())
+                    .append(" / ").append(c.second.event.getTitle()).append("\n");
+        }
+
+        JTextArea textArea = new JTextArea(sb.toString());
+        textArea.setEditable(false);
+        textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        JScrollPane scrollPane = new JScrollPane(textArea);
+        scrollPane.setPreferredSize(new Dimension(500, 400));
+
+        JOptionPane.showMessageDialog(this, scrollPane, "Conflict Report", JOptionPane.PLAIN_MESSAGE);
+    }
+
     private void handleBackup() {
+        // Full or incremental (months changed since the last full backup), and how hard to compress
+        JComboBox<BackupWriter.Kind> kindBox = new JComboBox<>(BackupWriter.Kind.values());
+        String[] levels = {"Normal", "Fast", "Best", "Store only"};
+        int[] levelValues = {Deflater.DEFAULT_COMPRESSION, Deflater.BEST_SPEED, Deflater.BEST_COMPRESSION, Deflater.NO_COMPRESSION};
+        JComboBox<String> levelBox = new JComboBox<>(levels);
+        JPanel options = new JPanel(new GridLayout(0, 2, 5, 5));
+        options.add(new JLabel("Backup type:"));
+        options.add(kindBox);
+        options.add(new JLabel("Compression:"));
+        options.add(levelBox);
+        if (JOptionPane.showConfirmDialog(this, options, "Backup Options", JOptionPane.OK_CANCEL_OPTION)
+                != JOptionPane.OK_OPTION) return;
+        BackupWriter.Kind kind = (BackupWriter.Kind) kindBox.getSelectedItem();
+        int level = levelValues[levelBox.getSelectedIndex()];
+
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Save Backup");
         fileChooser.setFileFilter(new FileNameExtensionFilter("ZIP files", "zip"));
-        fileChooser.setSelectedFile(new File("calendar_backup_" + LocalDate.now() + ".zip"));
+        String suffix = kind == BackupWriter.Kind.INCREMENTAL ? "_incremental" : "";
+        fileChooser.setSelectedFile(new File("calendar_backup_" + LocalDate.now() + suffix + ".zip"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        String path = fileChooser.getSelectedFile().getAbsolutePath();
+        if (!path.endsWith(".zip")) path += ".zip";
+        String location = path;
+
+        // Runs on the backup thread; the calendar stays usable while the bar fills up
+        JProgressBar progress = new JProgressBar(0, 1000);
+        progress.setStringPainted(true);
+        JDialog progressDialog = new JDialog(this, "Backing up...", false);
+        progressDialog.setContentPane(progress);
+        progressDialog.setSize(320, 60);
+        progressDialog.setLocationRelativeTo(this);
+        progressDialog.setVisible(true);
+
+        controller.startBackup(location, kind, level, (done, total) -> SwingUtilities.invokeLater(() ->
+                progress.setValue(total == 0 ? 1000 : (int) (done * 1000 / total))))
+                .whenComplete((result, ex) -> SwingUtilities.invokeLater(() -> {
+                    progressDialog.dispose();
+                    if (ex != null) {
+                        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                        JOptionPane.showMessageDialog(this, "Backup failed: " + cause.getMessage(),
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+                    String what = result.kind == BackupWriter.Kind.FULL
+                            ? (kind == BackupWriter.Kind.INCREMENTAL ? "Full backup (no earlier full backup to compare with)" : "Full backup")
+                            : "Incremental backup: " + result.monthsWritten + " of " + result.months + " months changed";
+                    JOptionPane.showMessageDialog(this,
+                            "Backup completed!\n\n" + what + "\n" + result.events + " events, "
+                                    + (result.bytes / 1024) + " KB\n\nLocation: " + location,
+                            "Backup Success", JOptionPane.INFORMATION_MESSAGE);
+                }));
+    }
 
-        if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            try {
-                String path = fileChooser.getSelectedFile().getAbsolutePath();
-                if (!path.endsWith(".zip")) path += ".zip";
-                controller.performBackup(path);
-                JOptionPane.showMessageDialog(this,
-                        "Backup completed!\n\nLocation: " + path,
-                        "Backup Success", JOptionPane.INFORMATION_MESSAGE);
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, "Backup failed: " + ex.getMessage(),
-                        "Error", JOptionPane.ERROR_MESSAGE);
-            }
+    // Every occurrence in a date range to a CSV file, written on the backup thread
+    private void handleRangeReport() {
+        JTextField startField = new JTextField(LocalDate.now().withDayOfMonth(1).toString());
+        JTextField endField = new JTextField(LocalDate.now().plusYears(1).toString());
+        Object[] message = {
+                "Start Date (YYYY-MM-DD):", startField,
+                "End Date (YYYY-MM-DD):", endField
+        };
+        if (JOptionPane.showConfirmDialog(this, message, "Range Report", JOptionPane.OK_CANCEL_OPTION)
+                != JOptionPane.OK_OPTION) return;
+        LocalDate start, end;
+        try {
+            start = LocalDate.parse(startField.getText());
+            end = LocalDate.parse(endField.getText());
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "Invalid date format. Use YYYY-MM-DD.");
+            return;
         }
+
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Save Range Report");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        fileChooser.setSelectedFile(new File("calendar_" + start + "_" + end + ".csv"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        String path = fileChooser.getSelectedFile().getAbsolutePath();
+        if (!path.endsWith(".csv")) path += ".csv";
+        String location = path;
+
+        controller.startRangeReport(start, end, location)
+                .whenComplete((rows, ex) -> SwingUtilities.invokeLater(() -> {
+                    if (ex != null) {
+                        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                        JOptionPane.showMessageDialog(this, "Report failed: " + cause.getMessage(),
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+                    JOptionPane.showMessageDialog(this, rows + " occurrence(s) written to\n" + location,
+                            "Range Report", JOptionPane.INFORMATION_MESSAGE);
+                }));
     }
 
     private void handleRestore() {
@@ -821,6 +908,7 @@ public class LaunchPage extends JFrame implements ActionListener {
         int restoreChoice = JOptionPane.showOptionDialog(this,
                 "How would you like to restore?\n\n" +
                         "Append: Keep existing events and add imported ones\n" +
+                        "  (an incremental backup replaces the months it holds)\n" +
                         "Replace: Delete all current events and use only imported ones",
                 "Restore Options", JOptionPane.DEFAULT_OPTION,
                 JOptionPane.QUESTION_MESSAGE, null, opts, opts[2]);
@@ -0,0 +1,172 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Times loading event.csv/recurrent.csv with FileHandler against the original reader, which
+// split each line by hand and scanned the whole event list for every recurrent.csv row.
+// Run with: java LoadBenchmark
+// A middle column keeps the old line splitting but joins through an IntHashMap, so the join's
+// share of the speedup can be told apart from the parser's. The files are generated in a
+// temporary directory (half the events repeat, titles carry no commas so the old splitter reads
+// them too), and the FileHandler points there as well. Each size is warmed up first, then the
+// median of the measured runs is reported, and every reader is checked to return the same events.
+// The old reader is quadratic and gets fewer runs; at 100k events it still takes a few minutes.
+public class LoadBenchmark {
+
+    private static final int[] SIZES = {1_000, 10_000, 100_000};
+    private static final int WARMUP = 3;
+    private static final int RUNS = 5;
+    private static final int OLD_WARMUP = 1;
+    private static final int OLD_RUNS = 3;
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Files.createTempDirectory("calendar-load-bench");
+        File eventFile = dir.resolve("event.csv").toFile();
+        File recurFile = dir.resolve("recurrent.csv").toFile();
+        Path dataDir = dir.resolve("data");
+        FileHandler handler = new FileHandler(dataDir.toString(), FileHandler.StorageFormat.CSV);
+        try {
+            System.out.printf("%10s %12s %12s %12s %12s %10s %10s%n", "events", "recurring", "old reader",
+                    "split+hash", "FileHandler", "join gain", "total gain");
+            for (int size : SIZES) {
+                int recurring = generate(size, new Random(42), eventFile, recurFile);
+                List<Event> expected = handler.readCsv(eventFile, recurFile);
+                if (!same(loadOld(eventFile, recurFile), expected) || !same(loadSplitHashed(eventFile, recurFile), expected)) {
+                    throw new IllegalStateException("readers disagree at " + size);
+                }
+
+                double old = time(() -> loadOld(eventFile, recurFile), OLD_WARMUP, OLD_RUNS);
+                double hashed = time(() -> loadSplitHashed(eventFile, recurFile), WARMUP, RUNS);
+                double current = time(() -> handler.readCsv(eventFile, recurFile), WARMUP, RUNS);
+                System.out.printf("%10d %12d %10.1fms %10.1fms %10.1fms %9.2fx %9.2fx%n",
+                        size, recurring, old, hashed, current, old / hashed, old / current);
+            }
+        } finally {
+            Files.deleteIfExists(eventFile.toPath());
+            Files.deleteIfExists(recurFile.toPath());
+            Files.deleteIfExists(dataDir);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    // Every other event repeats weekly or monthly; returns the number of recurrent.csv rows
+    private static int generate(int size, Random random, File eventFile, File recurFile) throws IOException {
+        LocalDateTime base = LocalDateTime.of(2024, 7, 1, 0, 0);
+        int recurring = 0;
+        try (PrintWriter events = new PrintWriter(new BufferedWriter(new FileWriter(eventFile)));
+             PrintWriter recurrences = new PrintWriter(new BufferedWriter(new FileWriter(recurFile)))) {
+            events.println("eventId,title,description,startDateTime,endDateTime");
+            recurrences.println("eventId,recurrentInterval,recurrentTimes,recurrentEndDate");
+            for (int i = 1; i <= size; i++) {
+                LocalDateTime start = base.plusDays(random.nextInt(730)).plusMinutes(15L * random.nextInt(96));
+                LocalDateTime end = start.plusMinutes(30 + 15L * random.nextInt(8));
+                events.println(i + ",Event " + i + ",Room " + random.nextInt(50) + ","
+                        + start.format(Event.FMT) + "," + end.format(Event.FMT));
+                if (i % 2 == 0) {
+                    recurrences.println(i + "," + (random.nextBoolean() ? "1w" : "1m") + "," + (1 + random.nextInt(20)) + ",0");
+                    recurring++;
+                }
+            }
+        }
+        return recurring;
+    }
+
+    // --- The original reader ---
+    // Line by line with String.split, then a linear scan of the list per recurrence row.
+    // Only the rule parsing is today's, as the old interval codes are no longer written.
+    private static List<Event> loadOld(File eventFile, File recurFile) throws IOException {
+        List<Event> list = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(eventFile))) {
+            String line = br.readLine(); // Skip header
+            while ((line = br.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+                String[] parts = line.split(",", 5);
+                if (parts.length < 5) continue;
+                list.add(new Event(Integer.parseInt(parts[0].trim()), parts[1].trim(), parts[2].trim(),
+                        LocalDateTime.parse(parts[3].trim(), Event.FMT), LocalDateTime.parse(parts[4].trim(), Event.FMT),
+                        "NONE", 0));
+            }
+        }
+        try (BufferedReader br = new BufferedReader(new FileReader(recurFile))) {
+            String line = br.readLine(); // Skip header
+            while ((line = br.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+                String[] parts = line.split(",");
+                if (parts.length < 3) continue;
+                int id = Integer.parseInt(parts[0].trim());
+                for (Event e : list) {
+                    if (e.getId() == id) {
+                        e.setRecurrence(Recurrence.parse(parts[1].trim(), Integer.parseInt(parts[2].trim()),
+                                parts.length > 3 ? parts[3].trim() : "0"));
+                        break;
+                    }
+                }
+            }
+        }
+        return list;
+    }
+
+    // The original line splitting with only the join changed: recurrent.csv rows find their
+    // event through an IntHashMap instead of a scan of the list
+    private static List<Event> loadSplitHashed(File eventFile, File recurFile) throws IOException {
+        List<Event> list = new ArrayList<>();
+        IntHashMap<Event> byId = new IntHashMap<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(eventFile))) {
+            String line = br.readLine(); // Skip header
+            while ((line = br.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+                String[] parts = line.split(",", 5);
+                if (parts.length < 5) continue;
+                Event e = new Event(Integer.parseInt(parts[0].trim()), parts[1].trim(), parts[2].trim(),
+                        LocalDateTime.parse(parts[3].trim(), Event.FMT), LocalDateTime.parse(parts[4].trim(), Event.FMT),
+                        "NONE", 0);
+                list.add(e);
+                byId.put(e.getId(), e);
+            }
+        }
+        try (BufferedReader br = new BufferedReader(new FileReader(recurFile))) {
+            String line = br.readLine(); // Skip header
+            while ((line = br.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+                String[] parts = line.split(",");
+                if (parts.length < 3) continue;
+                Event e = byId.get(Integer.parseInt(parts[0].trim()));
+                if (e != null) {
+                    e.setRecurrence(Recurrence.parse(parts[1].trim(), Integer.parseInt(parts[2].trim()),
+                            parts.length > 3 ? parts[3].trim() : "0"));
+                }
+            }
+        }
+        return list;
+    }
+
+    private static boolean same(List<Event> a, List<Event> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            Event x = a.get(i), y = b.get(i);
+            if (x.getId() != y.getId() || !x.getTitle().equals(y.getTitle()) || !x.getStart().equals(y.getStart())
+                    || !x.getEnd().equals(y.getEnd()) || x.getFrequency() != y.getFrequency()
+                    || x.getRecurCount() != y.getRecurCount()) return false;
+        }
+        return true;
+    }
+
+    private interface Load {
+        List<Event> run() throws IOException;
+    }
+
+    // Median wall time in milliseconds
+    private static double time(Load body, int warmup, int runs) throws IOException {
+        for (int i = 0; i < warmup; i++) body.run();
+        double[] samples = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            body.run();
+            samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(samples);
+        return samples[runs / 2];
+    }
+}
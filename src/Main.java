@@ -2,11 +2,50 @@ import javax.swing.UIManager;
 
 public class Main {
     public static void main(String[] args) {
+        // One-shot migration of data/event.csv + data/recurrent.csv to the binary store
+        if (args.length > 0 && args[0].equals("--convert-to-binary")) {
+            try {
+                int count = new FileHandler(FileHandler.StorageFormat.CSV).convertToBinary();
+                System.out.println("Converted " + count + " events to data/events.bin");
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+        // Every occurrence in a date range, read from the saved events: --export-range FROM TO FILE
+        if (args.length > 0 && args[0].equals("--export-range")) {
+            if (args.length < 4) {
+                System.err.println("Usage: --export-range 2025-01-01 2025-03-31 report.csv");
+                return;
+            }
+            try {
+                int count = RangeReport.exportSaved(java.time.LocalDate.parse(args[1]), java.time.LocalDate.parse(args[2]), args[3]);
+                System.out.println("Wrote " + count + " occurrences to " + args[3]);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+        // Sequential vs fork/join occurrence expansion at 1k, 100k and 1M events
+        if (args.length > 0 && args[0].equals("--bench-expansion")) {
+            ExpansionBenchmark.run();
+            return;
+        }
+        // How edits reach the disk: --storage=rewrite, journal (the default) or lazy
+        CalendarController.StorageMode storage = CalendarController.StorageMode.JOURNAL;
+        if (args.length > 0 && args[0].startsWith("--storage=")) {
+            try {
+                storage = CalendarController.StorageMode.valueOf(args[0].substring("--storage=".length()).toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unknown storage mode: " + args[0] + " (use rewrite, journal or lazy)");
+                return;
+            }
+        }
     try {
         UIManager.put("Button.focus", new java.awt.Color(0, 0, 0, 0));
     } catch (Exception e) {
         e.printStackTrace();
     }
-        new LaunchPage();
+        new LaunchPage(storage);
     }
 }
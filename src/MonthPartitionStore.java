@@ -0,0 +1,224 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+// Events split on disk by the month of their first occurrence, so only the months
+// on screen need to be in memory.
+//
+//   data/months/YYYY-MM.csv     event.csv columns + recurrentInterval,recurrentTimes,recurrentEndDate
+//   data/months/partitions.csv  month,eventCount,maxId for every partition
+//   data/months/spanning.csv    eventId,homeMonth,lastMonth for series that run past their home month
+//
+// The store only tracks which months are resident; the events themselves live in
+// CalendarController's list like in the other storage modes. Writes arrive from the
+// persistence thread, so every public method is synchronized.
+public class MonthPartitionStore {
+    private final Path dir;
+    private final FileHandler format;
+
+    private final Map<YearMonth, int[]> manifest = new TreeMap<>(); // month -> {eventCount, maxId}
+    private final Map<Integer, YearMonth[]> spanning = new HashMap<>(); // id -> {home, last}
+    private final Set<YearMonth> resident = new HashSet<>();
+    private IntHashMap<YearMonth> homes; // id -> partition it was last written to, built on first use
+
+    public MonthPartitionStore(String directory, FileHandler format) {
+        this.dir = Paths.get(directory);
+        this.format = format;
+    }
+
+    public static YearMonth homeOf(Event e) {
+        return YearMonth.from(e.getStart());
+    }
+
+    public synchronized boolean exists() {
+        return Files.exists(dir.resolve("partitions.csv"));
+    }
+
+    // --- Index Files ---
+    public synchronized void open() throws IOException {
+        manifest.clear();
+        spanning.clear();
+        resident.clear();
+        homes = null;
+
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(dir.resolve("partitions.csv"), StandardCharsets.UTF_8))) {
+            reader.next(); // Skip header
+            while (reader.next()) {
+                if (reader.isBlankLine()) continue;
+                manifest.put(YearMonth.parse(reader.getString(0)), new int[]{reader.getInt(1), reader.getInt(2)});
+            }
+        }
+
+        Path spanFile = dir.resolve("spanning.csv");
+        if (!Files.exists(spanFile)) return;
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(spanFile, StandardCharsets.UTF_8))) {
+            reader.next(); // Skip header
+            while (reader.next()) {
+                if (reader.isBlankLine()) continue;
+                spanning.put(reader.getInt(0), new YearMonth[]{
+                        YearMonth.parse(reader.getString(1)), YearMonth.parse(reader.getString(2))});
+            }
+        }
+    }
+
+    // Re-partitions a full event list, replacing whatever was on disk
+    public synchronized void rebuild(List<Event> events) throws IOException {
+        Files.createDirectories(dir);
+        try (DirectoryStream<Path> old = Files.newDirectoryStream(dir, "*.csv")) {
+            for (Path p : old) Files.delete(p);
+        }
+        manifest.clear();
+        spanning.clear();
+        resident.clear();
+        homes = null;
+
+        Map<YearMonth, List<Event>> byMonth = new TreeMap<>();
+        for (Event e : events) byMonth.computeIfAbsent(homeOf(e), m -> new ArrayList<>()).add(e);
+        for (Map.Entry<YearMonth, List<Event>> entry : byMonth.entrySet()) {
+            writePartitionFile(entry.getKey(), entry.getValue());
+        }
+        writeIndexFiles();
+    }
+
+    // --- Residency ---
+    // Partitions holding any event that can occur in [from, to]: the months themselves
+    // plus the home months of spanning series that reach into them
+    public synchronized Set<YearMonth> monthsCovering(LocalDate from, LocalDate to) {
+        YearMonth first = YearMonth.from(from);
+        YearMonth last = YearMonth.from(to);
+        Set<YearMonth> months = new TreeSet<>();
+        for (YearMonth m : manifest.keySet()) {
+            if (!m.isBefore(first) && !m.isAfter(last)) months.add(m);
+        }
+        for (YearMonth[] span : spanning.values()) {
+            if (span[0].isBefore(first) && !span[1].isBefore(first)) months.add(span[0]);
+        }
+        return months;
+    }
+
+    public synchronized boolean isResident(YearMonth month) { return resident.contains(month); }
+    public synchronized Set<YearMonth> getResidentMonths() { return new HashSet<>(resident); }
+    public synchronized Set<YearMonth> getAllMonths() { return new TreeSet<>(manifest.keySet()); }
+
+    public synchronized int getResidentPartitionCount() { return resident.size(); }
+    public synchronized int getPartitionCount() { return manifest.size(); }
+
+    public synchronized int getMaxId() {
+        int max = 0;
+        for (int[] stats : manifest.values()) max = Math.max(max, stats[1]);
+        return max;
+    }
+
+    // Reads a partition and marks it resident
+    public synchronized List<Event> load(YearMonth month) throws IOException {
+        List<Event> events = read(month);
+        resident.add(month);
+        return events;
+    }
+
+    public synchronized void markUnloaded(YearMonth month) {
+        resident.remove(month);
+    }
+
+    // The month whose partition the id was last written to, or null if it never was.
+    // The first call reads every partition once; write() keeps the map current after that.
+    // An entry outlives a delete, so callers load the month and check it still holds the id.
+    public synchronized YearMonth findHome(int id) throws IOException {
+        if (homes == null) {
+            IntHashMap<YearMonth> map = new IntHashMap<>();
+            for (YearMonth m : manifest.keySet()) {
+                for (Event e : read(m)) map.put(e.getId(), m);
+            }
+            homes = map;
+        }
+        return homes.get(id);
+    }
+
+    // Reads a partition without making it resident (for one-off full scans)
+    public synchronized List<Event> read(YearMonth month) throws IOException {
+        List<Event> list = new ArrayList<>();
+        Path file = partitionFile(month);
+        if (!Files.exists(file)) return list;
+
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            reader.next(); // Skip header
+            while (reader.next()) {
+                if (reader.isBlankLine()) continue;
+                // A row that does not parse fails the whole partition: reading the month without
+                // it would let the next write of that month delete it
+                Event e = Event.fromCSV(reader, 0);
+                if (e == null) throw new IOException("Unreadable event in " + file + ": " + reader.describe());
+                if (reader.fieldCount() >= 7) {
+                    try {
+                        e.setRecurrence(format.readRecurrence(reader, 5, 7));
+                    } catch (RuntimeException ex) {
+                        throw new IOException("Unreadable recurrence in " + file + ": " + reader.describe(), ex);
+                    }
+                }
+                list.add(e);
+            }
+        }
+        return list;
+    }
+
+    // --- Writing ---
+    // Rewrites one partition from the given events
+    public synchronized void write(YearMonth month, List<Event> events) throws IOException {
+        for (Iterator<YearMonth[]> it = spanning.values().iterator(); it.hasNext(); ) {
+            if (it.next()[0].equals(month)) it.remove();
+        }
+        if (events.isEmpty()) {
+            Files.deleteIfExists(partitionFile(month));
+            manifest.remove(month);
+        } else {
+            writePartitionFile(month, events);
+        }
+        writeIndexFiles();
+    }
+
+    private void writePartitionFile(YearMonth month, List<Event> events) throws IOException {
+        Path tmp = dir.resolve(month + ".csv.tmp");
+        int maxId = 0;
+        try (PrintWriter pw = new PrintWriter(Files.newBufferedWriter(tmp, StandardCharsets.UTF_8))) {
+            pw.println("eventId,title,description,startDateTime,endDateTime,recurrentInterval,recurrentTimes,recurrentEndDate");
+            for (Event e : events) {
+                Recurrence r = e.getRecurrence();
+                pw.println(format.formatEventLine(e) + "," + r.formatInterval() + "," + r.count + "," + r.formatEndDate());
+                maxId = Math.max(maxId, e.getId());
+                if (homes != null) homes.put(e.getId(), month);
+
+                YearMonth last = YearMonth.from(e.getSpanEnd());
+                if (last.isAfter(month)) spanning.put(e.getId(), new YearMonth[]{month, last});
+            }
+        }
+        Files.move(tmp, partitionFile(month), StandardCopyOption.REPLACE_EXISTING);
+        manifest.put(month, new int[]{events.size(), maxId});
+    }
+
+    private void writeIndexFiles() throws IOException {
+        Path tmp = dir.resolve("partitions.csv.tmp");
+        try (PrintWriter pw = new PrintWriter(Files.newBufferedWriter(tmp, StandardCharsets.UTF_8))) {
+            pw.println("month,eventCount,maxId");
+            for (Map.Entry<YearMonth, int[]> entry : manifest.entrySet()) {
+                pw.println(entry.getKey() + "," + entry.getValue()[0] + "," + entry.getValue()[1]);
+            }
+        }
+        Files.move(tmp, dir.resolve("partitions.csv"), StandardCopyOption.REPLACE_EXISTING);
+
+        tmp = dir.resolve("spanning.csv.tmp");
+        try (PrintWriter pw = new PrintWriter(Files.newBufferedWriter(tmp, StandardCharsets.UTF_8))) {
+            pw.println("eventId,homeMonth,lastMonth");
+            for (Map.Entry<Integer, YearMonth[]> entry : spanning.entrySet()) {
+                pw.println(entry.getKey() + "," + entry.getValue()[0] + "," + entry.getValue()[1]);
+            }
+        }
+        Files.move(tmp, dir.resolve("spanning.csv"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path partitionFile(YearMonth month) {
+        return dir.resolve(month + ".csv");
+    }
+}
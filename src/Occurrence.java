@@ -0,0 +1,19 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One concrete occurrence of an event: the event itself (index 0) or one of its repeats
+public class Occurrence {
+    public final Event event;
+    public final int index;
+    public final LocalDateTime start;
+    public final LocalDateTime end;
+
+    public Occurrence(Event event, int index, LocalDateTime start, LocalDateTime end) {
+        this.event = event;
+        this.index = index;
+        this.start = start;
+        this.end = end;
+    }
+
+    public LocalDate getDate() { return start.toLocalDate(); }
+}
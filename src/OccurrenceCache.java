@@ -0,0 +1,151 @@
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+// Bounded LRU cache of expanded occurrence start times, per (series, version, window).
+// Start times are kept as epoch seconds (UTC, the same wall-clock convention as the
+// binary store) in a primitive array, so an entry costs 8 bytes per occurrence.
+//
+// Every Event carries a version stamp that changes whenever a setter runs, so an edited
+// series simply stops matching its old entries; those age out through the LRU order.
+// Non-repeating events are not cached, expanding them is already trivial.
+// Shared with the prefetch thread, so all state is guarded by the cache's monitor.
+public class OccurrenceCache {
+    public static final long DEFAULT_BUDGET_BYTES = 8L << 20; // 8 MB
+    private static final int ENTRY_OVERHEAD = 96; // key, entry object, array header, map node
+
+    // Occurrences of one series whose start falls on a day within the requested window
+    public static class Window {
+        public final int firstIndex;  // occurrence index of starts[0]
+        private final long[] starts;  // epoch seconds
+
+        Window(int firstIndex, long[] starts) {
+            this.firstIndex = firstIndex;
+            this.starts = starts;
+        }
+
+        public int size() { return starts.length; }
+        public LocalDateTime getStart(int i) { return LocalDateTime.ofEpochSecond(starts[i], 0, ZoneOffset.UTC); }
+    }
+
+    private static class Key {
+        final int id;
+        final long version;
+        final long fromDay, toDay;
+
+        Key(Event e, LocalDate from, LocalDate to) {
+            this.id = e.getId();
+            this.version = e.getVersion();
+            this.fromDay = from.toEpochDay();
+            this.toDay = to.toEpochDay();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return id == k.id && version == k.version && fromDay == k.fromDay && toDay == k.toDay;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, version, fromDay, toDay);
+        }
+    }
+
+    private final LinkedHashMap<Key, Window> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long budgetBytes;
+    private long bytes = 0;
+    private long hits = 0, misses = 0, evictions = 0;
+
+    public OccurrenceCache() {
+        this(DEFAULT_BUDGET_BYTES);
+    }
+
+    public OccurrenceCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    // --- Lookup ---
+    // Occurrences of the event starting on a day within [from, to]
+    public Window get(Event e, LocalDate from, LocalDate to) {
+        if (e.getLastOccurrenceIndex() == 0) return expand(e, from, to);
+
+        Key key = new Key(e, from, to);
+        synchronized (this) {
+            Window window = entries.get(key);
+            if (window != null) {
+                hits++;
+                return window;
+            }
+            misses++;
+        }
+
+        // Expanded outside the lock so the prefetch thread and the UI do not queue up here
+        Window window = expand(e, from, to);
+        synchronized (this) {
+            Window replaced = entries.put(key, window);
+            if (replaced != null) bytes -= sizeOf(replaced);
+            bytes += sizeOf(window);
+            evictToBudget();
+        }
+        return window;
+    }
+
+    private static Window expand(Event e, LocalDate from, LocalDate to) {
+        int first = e.firstOccurrenceOnOrAfter(from);
+        if (first < 0) return new Window(0, new long[0]);
+
+        int last = e.getLastOccurrenceIndex();
+        long toDay = to.toEpochDay();
+        long[] starts = new long[Math.min(16, last - first + 1)];
+        int n = 0;
+        for (int i = first; i <= last; i++) {
+            long start = e.getOccurrenceEpochSecond(i);
+            if (Math.floorDiv(start, 86_400L) > toDay) break;
+            if (n == starts.length) starts = Arrays.copyOf(starts, n * 2);
+            starts[n++] = start;
+        }
+        return new Window(first, n == starts.length ? starts : Arrays.copyOf(starts, n));
+    }
+
+    // --- Budget ---
+    public synchronized void setBudgetBytes(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        evictToBudget();
+    }
+
+    public synchronized long getBudgetBytes() { return budgetBytes; }
+
+    private void evictToBudget() {
+        Iterator<Window> it = entries.values().iterator();
+        while (bytes > budgetBytes && it.hasNext()) {
+            bytes -= sizeOf(it.next());
+            it.remove();
+            evictions++;
+        }
+    }
+
+    private static long sizeOf(Window w) {
+        return ENTRY_OVERHEAD + 8L * w.starts.length;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    // --- Counters ---
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+    public synchronized long getBytes() { return bytes; }
+    public synchronized int size() { return entries.size(); }
+
+    @Override
+    public synchronized String toString() {
+        return "OccurrenceCache[" + entries.size() + " windows, " + bytes + "/" + budgetBytes + " bytes, "
+                + hits + " hits, " + misses + " misses, " + evictions + " evictions]";
+    }
+}
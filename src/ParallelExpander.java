@@ -0,0 +1,105 @@
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Expands the occurrences of a large set of events across cores.
+// The events are split into contiguous slices on the common fork/join pool; each slice is
+// expanded and sorted on its own, then the sorted runs are k-way merged. Runs are merged in
+// slice order on equal dates and each slice sort is stable, so the result is exactly what
+// SearchCursor produces: by date, then by position in the input, then by occurrence.
+public class ParallelExpander {
+
+    // Events per slice; below this the fork overhead costs more than it saves
+    private static final int SLICE_EVENTS = 2048;
+
+    private static final Comparator<CalendarController.SearchMatch> BY_DATE =
+            Comparator.comparing(m -> m.date);
+
+    private ParallelExpander() {}
+
+    // Occurrences starting within [from, to]; either bound may be null for an open end
+    public static List<CalendarController.SearchMatch> expand(List<Event> events, LocalDate from, LocalDate to) {
+        if (events.size() <= SLICE_EVENTS) return expandSlice(events, 0, events.size(), from, to);
+
+        List<List<CalendarController.SearchMatch>> runs = ForkJoinPool.commonPool()
+                .invoke(new ExpandTask(events, 0, events.size(), from, to));
+        return merge(runs);
+    }
+
+    // Splits in halves down to a slice, returning the sorted runs left to right
+    private static class ExpandTask extends RecursiveTask<List<List<CalendarController.SearchMatch>>> {
+        private final List<Event> events;
+        private final int lo, hi;
+        private final LocalDate from, to;
+
+        ExpandTask(List<Event> events, int lo, int hi, LocalDate from, LocalDate to) {
+            this.events = events;
+            this.lo = lo;
+            this.hi = hi;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<List<CalendarController.SearchMatch>> compute() {
+            if (hi - lo <= SLICE_EVENTS) {
+                List<List<CalendarController.SearchMatch>> runs = new ArrayList<>(1);
+                runs.add(expandSlice(events, lo, hi, from, to));
+                return runs;
+            }
+            int mid = (lo + hi) >>> 1;
+            ExpandTask left = new ExpandTask(events, lo, mid, from, to);
+            left.fork();
+            List<List<CalendarController.SearchMatch>> runs = new ExpandTask(events, mid, hi, from, to).compute();
+            List<List<CalendarController.SearchMatch>> leftRuns = left.join();
+            leftRuns.addAll(runs);
+            return leftRuns;
+        }
+    }
+
+    // Each series is already in date order, so a stable sort keeps ties in input order
+    private static List<CalendarController.SearchMatch> expandSlice(List<Event> events, int lo, int hi,
+                                                                    LocalDate from, LocalDate to) {
+        List<CalendarController.SearchMatch> out = new ArrayList<>();
+        for (int i = lo; i < hi; i++) {
+            Event e = events.get(i);
+            int first = from == null ? 0 : e.firstOccurrenceOnOrAfter(from);
+            if (first < 0) continue;
+
+            int last = e.getLastOccurrenceIndex();
+            if (to != null) {
+                int beyond = e.firstOccurrenceOnOrAfter(to.plusDays(1));
+                if (beyond >= 0) last = beyond - 1;
+            }
+            for (int k = first; k <= last; k++) {
+                out.add(new CalendarController.SearchMatch(e.getOccurrence(k).toLocalDate(), e));
+            }
+        }
+        out.sort(BY_DATE);
+        return out;
+    }
+
+    // Heap of run heads ordered by date, then by run position
+    private static List<CalendarController.SearchMatch> merge(List<List<CalendarController.SearchMatch>> runs) {
+        int total = 0;
+        for (List<CalendarController.SearchMatch> run : runs) total += run.size();
+        List<CalendarController.SearchMatch> out = new ArrayList<>(total);
+
+        int[] positions = new int[runs.size()];
+        PriorityQueue<Integer> heap = new PriorityQueue<>((a, b) -> {
+            int cmp = runs.get(a).get(positions[a]).date.compareTo(runs.get(b).get(positions[b]).date);
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        });
+        for (int r = 0; r < runs.size(); r++) {
+            if (!runs.get(r).isEmpty()) heap.add(r);
+        }
+        while (!heap.isEmpty()) {
+            int r = heap.poll();
+            List<CalendarController.SearchMatch> run = runs.get(r);
+            out.add(run.get(positions[r]++));
+            if (positions[r] < run.size()) heap.add(r);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,91 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+// Runs disk writes on a single background thread so the Swing thread never waits on I/O.
+// Tasks submitted under the same key within a burst are coalesced: only the latest one runs.
+// Tasks without a key (journal records) always run, in submission order.
+public class PersistenceWorker {
+    public interface IoTask {
+        void run() throws Exception;
+    }
+
+    // Short delay before draining so a burst of edits turns into one write
+    private static final long COALESCE_MS = 50;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "calendar-persistence");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Map<Object, IoTask> pending = new LinkedHashMap<>();
+    private final Set<Object> running = new HashSet<>(); // keys of the batch being written
+    private boolean draining = false; // true from the first submit until the queue is empty again
+    private volatile Consumer<Exception> failureListener;
+
+    public void setFailureListener(Consumer<Exception> listener) {
+        this.failureListener = listener;
+    }
+
+    // Passes a failure that kept something from being written to the listener, like a failed task
+    public void report(Exception e) {
+        e.printStackTrace();
+        Consumer<Exception> listener = failureListener;
+        if (listener != null) listener.accept(e);
+    }
+
+    public synchronized void submit(Object key, IoTask task) {
+        pending.put(key != null ? key : new Object(), task);
+        if (!draining) {
+            draining = true;
+            executor.schedule(this::drain, COALESCE_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // True while there are writes that have not reached the disk yet
+    public synchronized boolean isDirty() {
+        return draining;
+    }
+
+    // True while a write under this key is queued or running
+    public synchronized boolean isPending(Object key) {
+        return pending.containsKey(key) || running.contains(key);
+    }
+
+    // Blocks until every submitted write has finished
+    public synchronized void flush() {
+        boolean interrupted = false;
+        while (draining) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private void drain() {
+        while (true) {
+            List<IoTask> batch;
+            synchronized (this) {
+                running.clear();
+                if (pending.isEmpty()) {
+                    draining = false;
+                    notifyAll();
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+                running.addAll(pending.keySet());
+                pending.clear();
+            }
+            for (IoTask task : batch) {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    report(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+import java.io.*;
+import java.time.LocalDate;
+import java.util.List;
+
+// Writes every occurrence in a date range to a CSV file, one row per occurrence: its date
+// followed by the event.csv columns of the event. The app writes one from its current events
+// (Export Range Report); Main --export-range writes one from the saved files.
+public class RangeReport {
+
+    // Straight from the saved snapshot and journal, without loading every event: the binary
+    // store decodes only the records whose dates overlap the range. Partitions written by
+    // --storage=lazy live in data/months and are not read here.
+    public static int exportSaved(LocalDate from, LocalDate to, String file) throws IOException {
+        FileHandler handler = new FileHandler();
+        List<Event> events = handler.queryRange(from, to);
+        return write(handler, CalendarController.expandAll(events, from, to), file);
+    }
+
+    static int write(FileHandler format, List<CalendarController.SearchMatch> matches, String file) throws IOException {
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
+            out.println("date,eventId,title,description,startDateTime,endDateTime");
+            for (CalendarController.SearchMatch m : matches) {
+                out.println(m.date + "," + format.formatEventLine(m.event));
+            }
+        }
+        return matches.size();
+    }
+}
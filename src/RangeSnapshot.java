@@ -0,0 +1,75 @@
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+// Occurrences of a date window bucketed per day, with the per-day count and conflict flag
+// worked out once. Grid views read from this instead of querying the controller per cell.
+public class RangeSnapshot {
+    private final LocalDate start;
+    private final LocalDate end;
+    private final List<List<Occurrence>> days;
+    private final boolean[] conflicts;
+
+    public RangeSnapshot(LocalDate start, LocalDate end, List<Occurrence> occurrences) {
+        this.start = start;
+        this.end = end;
+
+        int length = (int) ChronoUnit.DAYS.between(start, end) + 1;
+        days = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) days.add(new ArrayList<>());
+        for (Occurrence o : occurrences) {
+            int slot = slotOf(o.getDate());
+            if (slot >= 0) days.get(slot).add(o);
+        }
+
+        conflicts = new boolean[length];
+        for (int i = 0; i < length; i++) conflicts[i] = ConflictDetector.hasAnyConflict(days.get(i));
+    }
+
+    // Expands the candidates' occurrences that start within [start, end]
+    public static RangeSnapshot build(LocalDate start, LocalDate end, List<Event> candidates, OccurrenceCache cache) {
+        List<Occurrence> occurrences = new ArrayList<>();
+        for (Event e : candidates) {
+            OccurrenceCache.Window window = cache.get(e, start, end);
+            Duration length = Duration.between(e.getStart(), e.getEnd());
+            for (int i = 0; i < window.size(); i++) {
+                LocalDateTime occurrenceStart = window.getStart(i);
+                occurrences.add(new Occurrence(e, window.firstIndex + i, occurrenceStart, occurrenceStart.plus(length)));
+            }
+        }
+        return new RangeSnapshot(start, end, occurrences);
+    }
+
+    // --- Getters ---
+    public LocalDate getStart() { return start; }
+    public LocalDate getEnd() { return end; }
+
+    public List<Occurrence> getOccurrences(LocalDate date) {
+        int slot = slotOf(date);
+        return slot < 0 ? Collections.emptyList() : Collections.unmodifiableList(days.get(slot));
+    }
+
+    public List<Event> getEvents(LocalDate date) {
+        List<Event> result = new ArrayList<>();
+        for (Occurrence o : getOccurrences(date)) result.add(o.event);
+        return result;
+    }
+
+    public int getCount(LocalDate date) {
+        int slot = slotOf(date);
+        return slot < 0 ? 0 : days.get(slot).size();
+    }
+
+    public boolean hasConflict(LocalDate date) {
+        int slot = slotOf(date);
+        return slot >= 0 && conflicts[slot];
+    }
+
+    // --- Helpers ---
+    private int slotOf(LocalDate date) {
+        if (date.isBefore(start) || date.isAfter(end)) return -1;
+        return (int) ChronoUnit.DAYS.between(start, date);
+    }
+}
@@ -0,0 +1,268 @@
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+// How an event repeats: a frequency, every `interval` periods, optionally on a set of
+// weekdays (weekly rules only), for `count` more occurrences and/or until a date.
+// Occurrence 0 is always the event itself; a weekly rule always includes its start's weekday.
+//
+// The static helpers do the occurrence math on epoch seconds and epoch days with integer
+// civil-calendar arithmetic, so expanding a series allocates nothing but its results.
+public final class Recurrence {
+
+    public enum Frequency { NONE, DAILY, WEEKLY, MONTHLY }
+
+    public static final Recurrence NONE = new Recurrence(Frequency.NONE, 1, 0, 0, null);
+
+    private static final Frequency[] FREQUENCIES = Frequency.values();
+    private static final String[] DAY_CODES = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+    static final int NO_UNTIL = Integer.MAX_VALUE; // epoch day stored when there is no end date
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    public final Frequency frequency;
+    public final int interval;    // periods between occurrences, at least 1
+    public final int byDay;       // weekday bits, Monday = bit 0 (weekly only, 0 = the start's weekday)
+    public final int count;       // occurrences after the first, 0 = bounded by until alone
+    public final LocalDate until; // last day an occurrence may start, or null
+
+    // A NONE rule is always stored as interval 1, count 0 and no end date, whatever the
+    // dialog still had in its fields, so equal events look equal on disk and in checksums
+    public Recurrence(Frequency frequency, int interval, int byDay, int count, LocalDate until) {
+        boolean repeats = frequency != Frequency.NONE;
+        this.frequency = frequency;
+        this.interval = repeats ? Math.max(1, interval) : 1;
+        this.byDay = frequency == Frequency.WEEKLY ? byDay & 0x7F : 0;
+        this.count = repeats ? Math.max(0, count) : 0;
+        this.until = repeats ? until : null;
+    }
+
+    // The old "NONE"/"DAILY"/"WEEKLY"/"MONTHLY" plus times form
+    public static Recurrence of(String recurType, int count) {
+        return new Recurrence(frequencyOf(recurType), 1, 0, count, null);
+    }
+
+    public boolean repeats() {
+        return frequency != Frequency.NONE && (count > 0 || until != null);
+    }
+
+    // Frequency stored under the given ordinal; NONE for codes this version does not know
+    static Frequency frequency(int code) {
+        return code >= 0 && code < FREQUENCIES.length ? FREQUENCIES[code] : Frequency.NONE;
+    }
+
+    static Frequency frequencyOf(String recurType) {
+        if (recurType == null) return Frequency.NONE;
+        for (Frequency f : FREQUENCIES) {
+            if (f.name().equalsIgnoreCase(recurType)) return f;
+        }
+        return Frequency.NONE; // unknown types never repeated
+    }
+
+    // --- recurrent.csv encoding ---
+    // recurrentInterval: "<n>d", "<n>w" or "<n>m", a weekly rule optionally followed by
+    // ":" and its weekdays ("2w:MO/TH"); "0" when the event does not repeat.
+    // recurrentEndDate: ISO date, or "0" for none.
+    public static Recurrence parse(String interval, int count, String endDate) {
+        Frequency frequency = Frequency.NONE;
+        int n = 1;
+        int byDay = 0;
+        String code = interval == null ? "" : interval.trim().toLowerCase();
+        int colon = code.indexOf(':');
+        String days = colon >= 0 ? code.substring(colon + 1) : "";
+        if (colon >= 0) code = code.substring(0, colon);
+
+        if (!code.isEmpty()) {
+            switch (code.charAt(code.length() - 1)) {
+                case 'd': frequency = Frequency.DAILY; break;
+                case 'w': frequency = Frequency.WEEKLY; break;
+                case 'm': frequency = Frequency.MONTHLY; break;
+                default: break;
+            }
+            String digits = code.substring(0, code.length() - 1);
+            if (frequency != Frequency.NONE && !digits.isEmpty()) n = Integer.parseInt(digits);
+        }
+        if (!days.isEmpty()) byDay = parseDays(days);
+        LocalDate until = endDate == null || endDate.trim().isEmpty() || endDate.trim().equals("0")
+                ? null : LocalDate.parse(endDate.trim());
+        return new Recurrence(frequency, n, byDay, count, until);
+    }
+
+    public String formatInterval() {
+        switch (frequency) {
+            case DAILY: return interval + "d";
+            case WEEKLY: return byDay == 0 ? interval + "w" : interval + "w:" + formatDays(byDay);
+            case MONTHLY: return interval + "m";
+            default: return "0";
+        }
+    }
+
+    public String formatEndDate() {
+        return until == null ? "0" : until.toString();
+    }
+
+    // "MO/WE/FR" style, in week order
+    public static String formatDays(int byDay) {
+        StringBuilder sb = new StringBuilder();
+        for (int bit = 0; bit < 7; bit++) {
+            if ((byDay & (1 << bit)) == 0) continue;
+            if (sb.length() > 0) sb.append('/');
+            sb.append(DAY_CODES[bit]);
+        }
+        return sb.toString();
+    }
+
+    // Inverse of formatDays; also accepts commas and spaces between the codes
+    public static int parseDays(String days) {
+        int byDay = 0;
+        for (String day : days.split("[/, ]+")) {
+            int bit = dayBit(day);
+            if (bit >= 0) byDay |= 1 << bit;
+        }
+        return byDay;
+    }
+
+    private static int dayBit(String day) {
+        String d = day.trim().toUpperCase();
+        for (int bit = 0; bit < 7; bit++) {
+            if (DAY_CODES[bit].equals(d)) return bit;
+        }
+        return -1;
+    }
+
+    public static int dayBit(DayOfWeek day) {
+        return day.getValue() - 1;
+    }
+
+    @Override
+    public String toString() {
+        if (frequency == Frequency.NONE) return "NONE";
+        StringBuilder sb = new StringBuilder(frequency.name());
+        if (interval > 1) sb.append(" every ").append(interval);
+        if (byDay != 0) sb.append(" on ").append(formatDays(byDay));
+        if (count > 0) sb.append(", ").append(count).append(" times");
+        if (until != null) sb.append(" until ").append(until);
+        return sb.toString();
+    }
+
+    // --- Occurrence math on primitives ---
+    // Index of the first occurrence starting on or after the given epoch day, ignoring count
+    // and until (the caller clamps). Returns 0 when the series starts on or after that day.
+    static long firstIndexOnOrAfter(long startSecond, int frequency, int interval, int byDay, long day) {
+        long firstDay = Math.floorDiv(startSecond, SECONDS_PER_DAY);
+        if (firstDay >= day) return 0;
+        switch (FREQUENCIES[frequency]) {
+            case DAILY:
+                return ceilDiv(day - firstDay, interval);
+            case WEEKLY: {
+                int mask = weekMask(firstDay, byDay);
+                int perWeek = Integer.bitCount(mask);
+                long monday = firstDay - dayOfWeek(firstDay);
+                long period = 7L * interval;
+                long offset = day - monday;
+                long week = offset / period;
+                long inWeek = offset % period;
+                long j = inWeek < 7 ? week * perWeek + Integer.bitCount(mask & ((1 << (int) inWeek) - 1)) : (week + 1) * perWeek;
+                return j - Integer.bitCount(mask & ((1 << dayOfWeek(firstDay)) - 1));
+            }
+            case MONTHLY: {
+                long first = civil(firstDay);
+                long target = civil(day);
+                long months = (year(target) - year(first)) * 12L + (month(target) - month(first));
+                long index = ceilDiv(Math.max(0, months), interval);
+                // the day of month is clamped in short months, so the candidate may still land before day
+                if (plusMonths(first, index * interval) < day) index++;
+                return index;
+            }
+            default:
+                return Long.MAX_VALUE; // a single occurrence, already past
+        }
+    }
+
+    // Start of the given occurrence, in epoch seconds
+    static long occurrenceSecond(long startSecond, int frequency, int interval, int byDay, long index) {
+        switch (FREQUENCIES[frequency]) {
+            case DAILY:
+                return startSecond + index * interval * SECONDS_PER_DAY;
+            case WEEKLY: {
+                long firstDay = Math.floorDiv(startSecond, SECONDS_PER_DAY);
+                int mask = weekMask(firstDay, byDay);
+                int perWeek = Integer.bitCount(mask);
+                long j = index + Integer.bitCount(mask & ((1 << dayOfWeek(firstDay)) - 1));
+                long day = firstDay - dayOfWeek(firstDay) + (j / perWeek) * 7L * interval + nthBit(mask, (int) (j % perWeek));
+                return startSecond + (day - firstDay) * SECONDS_PER_DAY;
+            }
+            case MONTHLY: {
+                long firstDay = Math.floorDiv(startSecond, SECONDS_PER_DAY);
+                long day = plusMonths(civil(firstDay), index * interval);
+                return startSecond + (day - firstDay) * SECONDS_PER_DAY;
+            }
+            default:
+                return startSecond;
+        }
+    }
+
+    // Weekly rules always include the start's own weekday
+    private static int weekMask(long firstDay, int byDay) {
+        return byDay | (1 << dayOfWeek(firstDay));
+    }
+
+    // Monday = 0; epoch day 0 was a Thursday
+    private static int dayOfWeek(long epochDay) {
+        return Math.floorMod(epochDay + 3, 7);
+    }
+
+    private static int nthBit(int mask, int n) {
+        for (int bit = 0; bit < 7; bit++) {
+            if ((mask & (1 << bit)) != 0 && n-- == 0) return bit;
+        }
+        throw new IllegalArgumentException("mask " + mask + " has no bit " + n);
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+
+    // --- Civil calendar on epoch days (proleptic Gregorian, as java.time) ---
+    // Packs year, month and day into one long: year << 9 | month << 5 | day
+    private static long civil(long epochDay) {
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long doe = z - era * 146_097;
+        long yoe = (doe - doe / 1460 + doe / 36_524 - doe / 146_096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        long d = doy - (153 * mp + 2) / 5 + 1;
+        long m = mp < 10 ? mp + 3 : mp - 9;
+        long y = yoe + era * 400 + (m <= 2 ? 1 : 0);
+        return y << 9 | m << 5 | d;
+    }
+
+    private static long year(long civil) { return civil >> 9; }
+    private static int month(long civil) { return (int) (civil >> 5 & 0xF); }
+    private static int dayOfMonth(long civil) { return (int) (civil & 0x1F); }
+
+    private static long epochDay(long y, int m, int d) {
+        y -= m <= 2 ? 1 : 0;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153 * (m > 2 ? m - 3 : m + 9) + 2) / 5 + d - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146_097 + doe - 719_468;
+    }
+
+    // Same clamping as LocalDate.plusMonths: the 31st becomes the last day of a shorter month
+    private static long plusMonths(long civil, long months) {
+        long total = year(civil) * 12 + (month(civil) - 1) + months;
+        long y = Math.floorDiv(total, 12);
+        int m = Math.floorMod(total, 12) + 1;
+        return epochDay(y, m, Math.min(dayOfMonth(civil), lengthOfMonth(y, m)));
+    }
+
+    private static int lengthOfMonth(long y, int m) {
+        switch (m) {
+            case 2: return (y % 4 == 0 && (y % 100 != 0 || y % 400 == 0)) ? 29 : 28;
+            case 4: case 6: case 9: case 11: return 30;
+            default: return 31;
+        }
+    }
+}
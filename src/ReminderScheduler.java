@@ -0,0 +1,165 @@
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+// Fires a reminder shortly before each occurrence starts, or right away for one that is
+// already closer than the lead time when it is scheduled.
+// Only the next occurrence of every series is queued, ordered by fire time, with a single
+// timer armed for the head of the queue. Firing re-arms the series with its following
+// occurrence, so scheduling, rescheduling and cancelling are O(log n) and nothing is
+// rescanned on a clock tick.
+public class ReminderScheduler {
+
+    private static class Reminder {
+        final Event event;
+        final int index;              // occurrence index
+        final LocalDateTime start;    // occurrence start
+        final LocalDateTime fireAt;
+        final long seq;               // breaks ties between equal fire times
+
+        Reminder(Event event, int index, LocalDateTime start, LocalDateTime fireAt, long seq) {
+            this.event = event;
+            this.index = index;
+            this.start = start;
+            this.fireAt = fireAt;
+            this.seq = seq;
+        }
+    }
+
+    private final Duration lead;
+    private final TreeSet<Reminder> queue = new TreeSet<>((a, b) -> {
+        int cmp = a.fireAt.compareTo(b.fireAt);
+        return cmp != 0 ? cmp : Long.compare(a.seq, b.seq);
+    });
+    private final IntHashMap<Reminder> byId = new IntHashMap<>();
+    // Start of the occurrence each series last alerted for, until it has begun, so rescheduling
+    // inside the lead time does not alert for the same occurrence twice
+    private final IntHashMap<LocalDateTime> alerted = new IntHashMap<>();
+    private long nextSeq = 0;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "calendar-reminders");
+        t.setDaemon(true);
+        return t;
+    });
+    private ScheduledFuture<?> armed;
+    private LocalDateTime armedFor;
+    private volatile Consumer<Occurrence> listener;
+
+    public ReminderScheduler(Duration lead) {
+        this.lead = lead;
+    }
+
+    // Called on the reminder thread for every occurrence that comes due
+    public void setListener(Consumer<Occurrence> listener) {
+        this.listener = listener;
+    }
+
+    public Duration getLead() { return lead; }
+
+    // --- Maintenance ---
+    public synchronized void rebuild(Collection<Event> events) {
+        queue.clear();
+        byId.clear();
+        LocalDateTime now = LocalDateTime.now();
+        for (Event e : events) enqueue(e, now);
+        rearm();
+    }
+
+    // Queues the event's next occurrence, replacing whatever was queued under its id
+    public synchronized void schedule(Event e) {
+        removeQueued(e.getId());
+        enqueue(e, LocalDateTime.now());
+        rearm();
+    }
+
+    public synchronized void cancel(int eventId) {
+        removeQueued(eventId);
+        rearm();
+    }
+
+    public synchronized int size() { return queue.size(); }
+
+    // When the next reminder fires, or null if nothing is queued
+    public synchronized LocalDateTime getNextFireTime() {
+        return queue.isEmpty() ? null : queue.first().fireAt;
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    // --- Helpers ---
+    private void removeQueued(int eventId) {
+        Reminder old = byId.remove(eventId);
+        if (old != null) queue.remove(old);
+    }
+
+    // Next occurrence that has not started and was not alerted for yet: a closed-form jump to
+    // the first occurrence on or after today, then at most a few steps within it. It fires the
+    // lead time before its start, or now if that moment has already passed.
+    private void enqueue(Event e, LocalDateTime now) {
+        LocalDateTime done = alerted.get(e.getId());
+        if (done != null && !done.isAfter(now)) {
+            alerted.remove(e.getId());
+            done = null;
+        }
+        int i = e.firstOccurrenceOnOrAfter(now.toLocalDate());
+        if (i < 0) return;
+
+        int last = e.getLastOccurrenceIndex();
+        for (; i <= last; i++) {
+            LocalDateTime start = e.getOccurrence(i);
+            if (!start.isAfter(now) || start.equals(done)) continue;
+            LocalDateTime fireAt = start.minus(lead);
+            if (fireAt.isBefore(now)) fireAt = now;
+            Reminder r = new Reminder(e, i, start, fireAt, nextSeq++);
+            queue.add(r);
+            byId.put(e.getId(), r);
+            return;
+        }
+    }
+
+    // Points the timer at the head of the queue if it is not already aimed there
+    private void rearm() {
+        LocalDateTime head = queue.isEmpty() ? null : queue.first().fireAt;
+        if (Objects.equals(head, armedFor)) return;
+        if (armed != null) armed.cancel(false);
+        armed = null;
+        armedFor = head;
+        if (head == null) return;
+
+        long delay = Math.max(0, Duration.between(LocalDateTime.now(), head).toMillis());
+        armed = timer.schedule(this::fireDue, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void fireDue() {
+        List<Reminder> due = new ArrayList<>();
+        synchronized (this) {
+            armed = null;
+            armedFor = null;
+            LocalDateTime now = LocalDateTime.now();
+            while (!queue.isEmpty() && !queue.first().fireAt.isAfter(now)) {
+                Reminder r = queue.pollFirst();
+                byId.remove(r.event.getId());
+                alerted.put(r.event.getId(), r.start);
+                due.add(r);
+                enqueue(r.event, now); // re-arm the series with its following occurrence
+            }
+            rearm();
+        }
+
+        Consumer<Occurrence> l = listener;
+        if (l == null) return;
+        for (Reminder r : due) {
+            try {
+                l.accept(new Occurrence(r.event, r.index, r.start, r.event.getOccurrenceEnd(r.index)));
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
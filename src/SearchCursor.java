@@ -0,0 +1,90 @@
+import java.time.LocalDate;
+import java.util.*;
+
+// Walks the occurrences of a set of events in date order without expanding them up front.
+// Each series keeps only its next occurrence in a heap (a k-way merge), so pulling a page
+// of n matches costs O(n log k) no matter how long the series are.
+public class SearchCursor implements Iterator<CalendarController.SearchMatch> {
+
+    private static class Head {
+        final Event event;
+        final int order; // position in the input, breaks ties between series on the same day
+        final int last;  // final occurrence index to produce
+        int index;
+        LocalDate date;
+
+        Head(Event event, int order, int first, int last) {
+            this.event = event;
+            this.order = order;
+            this.index = first;
+            this.last = last;
+            this.date = event.getOccurrence(first).toLocalDate();
+        }
+    }
+
+    private final PriorityQueue<Head> heap = new PriorityQueue<>((a, b) -> {
+        int cmp = a.date.compareTo(b.date);
+        return cmp != 0 ? cmp : Integer.compare(a.order, b.order);
+    });
+    private final long total;
+    private long position = 0;
+
+    // Occurrences starting within [from, to]; either bound may be null for an open end
+    public SearchCursor(List<Event> events, LocalDate from, LocalDate to) {
+        long count = 0;
+        for (int i = 0; i < events.size(); i++) {
+            Event e = events.get(i);
+            int first = from == null ? 0 : e.firstOccurrenceOnOrAfter(from);
+            if (first < 0) continue;
+
+            int last = e.getLastOccurrenceIndex();
+            if (to != null) {
+                int beyond = e.firstOccurrenceOnOrAfter(to.plusDays(1));
+                if (beyond >= 0) last = beyond - 1;
+            }
+            if (last < first) continue;
+
+            heap.add(new Head(e, i, first, last));
+            count += last - first + 1;
+        }
+        this.total = count;
+    }
+
+    // Number of matches the cursor produces in total, known without expanding them
+    public long getTotalCount() { return total; }
+
+    // Number of matches already returned
+    public long getPosition() { return position; }
+
+    @Override
+    public boolean hasNext() {
+        return !heap.isEmpty();
+    }
+
+    @Override
+    public CalendarController.SearchMatch next() {
+        Head head = heap.poll();
+        if (head == null) throw new NoSuchElementException();
+        CalendarController.SearchMatch match = new CalendarController.SearchMatch(head.date, head.event);
+        position++;
+
+        if (head.index < head.last) {
+            head.index++;
+            head.date = head.event.getOccurrence(head.index).toLocalDate();
+            heap.add(head);
+        }
+        return match;
+    }
+
+    // Up to the next n matches; an empty list once the cursor is exhausted
+    public List<CalendarController.SearchMatch> nextPage(int n) {
+        List<CalendarController.SearchMatch> page = new ArrayList<>(Math.min(n, 256));
+        while (page.size() < n && hasNext()) page.add(next());
+        return page;
+    }
+
+    // Everything that is left, for callers that really want the full list
+    public List<CalendarController.SearchMatch> drain() {
+        return nextPage(Integer.MAX_VALUE);
+    }
+}
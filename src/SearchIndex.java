@@ -0,0 +1,227 @@
+import java.util.*;
+
+// Inverted index for substring search over event titles and descriptions.
+// Every event is broken into the character trigrams of its lowercased text, and each
+// trigram keeps a posting list of the event ids containing it. A query looks up its own
+// trigrams, walks only the shortest posting list and confirms each candidate against the
+// cached lowercase text, so non-matching events are never touched.
+//
+// Trigrams made of characters below U+0400 are packed exactly into an int; anything else
+// is hashed into the upper half of the key space. A collision only adds a candidate that
+// the final check throws away.
+//
+// Posting lists are append-only. Removed or changed events leave stale entries behind,
+// which are skipped at query time and dropped once they outnumber the live ones.
+//
+// The controller edits it under its writer lock while searches run on other threads, so
+// every public method is synchronized; a lookup holds the lock only for the posting walk.
+public class SearchIndex {
+    private static final int MIN_GRAM = 3;
+
+    private static class Doc {
+        final Event event;
+        final String title;       // lowercased
+        final String description; // lowercased
+        final long seq;           // insertion order, matches the controller's list order
+        final int[] grams;        // sorted, distinct
+
+        Doc(Event event, long seq) {
+            this.event = event;
+            this.title = lower(event.getTitle());
+            this.description = lower(event.getDescription());
+            this.seq = seq;
+            this.grams = trigrams("\n" + title + "\n" + description + "\n");
+        }
+
+        boolean matches(String query) {
+            return title.contains(query) || description.contains(query);
+        }
+    }
+
+    private static class Posting {
+        int[] ids = new int[4];
+        int size = 0;
+
+        void add(int id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+    }
+
+    private final IntHashMap<Posting> postings = new IntHashMap<>();
+    private final IntHashMap<Doc> docs = new IntHashMap<>();
+    private Doc[] order = new Doc[16]; // every Doc ever added, by seq; replaced ones are skipped
+    private int orderSize = 0;
+    private long nextSeq = 0;
+    private long postingEntries = 0; // everything appended since the last rebuild
+    private long liveEntries = 0;    // entries belonging to current documents
+
+    // --- Maintenance ---
+    // Indexes the event, replacing whatever was indexed under its id
+    public synchronized void add(Event e) {
+        Doc doc = new Doc(e, nextSeq++);
+        Doc old = docs.put(e.getId(), doc);
+        if (orderSize == order.length) order = Arrays.copyOf(order, orderSize * 2);
+        order[orderSize++] = doc;
+        if (old != null) liveEntries -= old.grams.length;
+
+        for (int gram : doc.grams) {
+            // The posting already holds this id if the previous text had the same trigram
+            if (old != null && Arrays.binarySearch(old.grams, gram) >= 0) continue;
+            Posting p = postings.get(gram);
+            if (p == null) {
+                p = new Posting();
+                postings.put(gram, p);
+            }
+            p.add(e.getId());
+            postingEntries++;
+        }
+        liveEntries += doc.grams.length;
+        compactIfStale();
+    }
+
+    public synchronized void remove(Event e) {
+        Doc doc = docs.get(e.getId());
+        if (doc == null || doc.event != e) return;
+        docs.remove(e.getId());
+        liveEntries -= doc.grams.length;
+        compactIfStale();
+    }
+
+    public synchronized void rebuild(Collection<Event> events) {
+        clear();
+        for (Event e : events) add(e);
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        docs.clear();
+        Arrays.fill(order, 0, orderSize, null);
+        orderSize = 0;
+        postingEntries = liveEntries = 0;
+    }
+
+    public synchronized int size() { return docs.size(); }
+
+    // --- Queries ---
+    // Events whose title or description contains the query (case-insensitive), in the
+    // order they were added
+    public synchronized List<Event> search(String query) {
+        String q = lower(query);
+        List<Posting> candidates = new ArrayList<>();
+        boolean scan;
+        if (q.length() >= MIN_GRAM) {
+            // Every trigram of the query must be present; the shortest list bounds the work
+            Posting shortest = null;
+            for (int gram : trigrams(q)) {
+                Posting p = postings.get(gram);
+                if (p == null) return new ArrayList<>();
+                if (shortest == null || p.size < shortest.size) shortest = p;
+            }
+            candidates.add(shortest);
+            scan = false;
+        } else if (isExact(q)) {
+            // Shorter queries sit inside some trigram of every match (the text is padded),
+            // so take the union of the lists whose trigram contains them
+            long candidateCount = 0;
+            for (int gram : postings.keys()) {
+                if (gram < 0 || gram >= 0x40000000) continue;
+                String text = new String(new char[]{(char) (gram >>> 20), (char) ((gram >>> 10) & 0x3FF), (char) (gram & 0x3FF)});
+                if (!text.contains(q)) continue;
+                Posting p = postings.get(gram);
+                candidates.add(p);
+                candidateCount += p.size;
+            }
+            scan = candidateCount > docs.size(); // a single letter hits nearly everything
+        } else {
+            scan = true; // hashed trigrams cannot be matched against a partial query
+        }
+
+        if (scan) {
+            // Walking the insertion log yields hits already in order
+            List<Event> result = new ArrayList<>();
+            for (int i = 0; i < orderSize; i++) {
+                Doc doc = order[i];
+                if (docs.get(doc.event.getId()) == doc && doc.matches(q)) result.add(doc.event);
+            }
+            return result;
+        }
+
+        List<Doc> hits = new ArrayList<>();
+        IntHashMap<Doc> seen = new IntHashMap<>();
+        for (Posting p : candidates) {
+            for (int i = 0; i < p.size; i++) {
+                int id = p.ids[i];
+                if (seen.containsKey(id)) continue;
+                Doc doc = docs.get(id);
+                if (doc == null || !doc.matches(q)) continue;
+                seen.put(id, doc);
+                hits.add(doc);
+            }
+        }
+
+        hits.sort(Comparator.comparingLong(d -> d.seq));
+        List<Event> result = new ArrayList<>(hits.size());
+        for (Doc d : hits) result.add(d.event);
+        return result;
+    }
+
+    // --- Helpers ---
+    private void compactIfStale() {
+        if (orderSize >= 1024 && orderSize > docs.size() * 2) {
+            int n = 0;
+            for (int i = 0; i < orderSize; i++) {
+                if (docs.get(order[i].event.getId()) == order[i]) order[n++] = order[i];
+            }
+            Arrays.fill(order, n, orderSize, null);
+            orderSize = n;
+        }
+        if (postingEntries < 4096 || postingEntries < liveEntries * 2) return;
+        postings.clear();
+        postingEntries = 0;
+        for (int d = 0; d < orderSize; d++) {
+            Doc doc = order[d];
+            if (docs.get(doc.event.getId()) != doc) continue;
+            for (int gram : doc.grams) {
+                Posting p = postings.get(gram);
+                if (p == null) {
+                    p = new Posting();
+                    postings.put(gram, p);
+                }
+                p.add(doc.event.getId());
+                postingEntries++;
+            }
+        }
+    }
+
+    private static String lower(String s) {
+        return s == null ? "" : s.toLowerCase();
+    }
+
+    private static int[] trigrams(String text) {
+        int n = Math.max(0, text.length() - MIN_GRAM + 1);
+        int[] grams = new int[n];
+        for (int i = 0; i < n; i++) grams[i] = key(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2));
+        Arrays.sort(grams);
+
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || grams[i] != grams[distinct - 1]) grams[distinct++] = grams[i];
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    // True if every character can be part of an exactly packed trigram
+    private static boolean isExact(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x400) return false;
+        }
+        return true;
+    }
+
+    private static int key(char a, char b, char c) {
+        if ((a | b | c) < 0x400) return (a << 20) | (b << 10) | c;
+        int h = (a * 31 + b) * 31 + c;
+        return (h ^ (h >>> 15)) | 0x40000000;
+    }
+}
@@ -0,0 +1,166 @@
+import javax.swing.*;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+// Runs searches on a SwingWorker so the Swing thread never waits on a big result set.
+// Opening the cursor (the index lookup, every candidate's first occurrence, and in lazy mode
+// reading the partitions from disk) happens in the first page's worker along with that page;
+// the controller's readers work from published snapshots and take its lock themselves where
+// they load, so this is safe off the Swing thread. Every further page is only fetched when the
+// caller asks for it (the results list scrolling near its end), so a search nobody reads past
+// its first screen costs one page. Starting a new search or cancelling ends the current one,
+// while it is still opening too. Page latencies are kept in a ring of recent samples for the
+// percentile report.
+public class SearchService {
+
+    // Both callbacks run on the Swing thread, and never for a search that was superseded or cancelled
+    public interface Listener {
+        void onOpened(long total); // before the first page: how many occurrences there are
+        void onResults(List<CalendarController.SearchMatch> page);
+        void onDone(long count, boolean cancelled);
+    }
+
+    private static final int PAGE_SIZE = 256; // matches per fetch
+    private static final int SAMPLES = 256;   // recent fetches kept for the percentiles
+
+    // One search: the cursor is opened by the first page worker and only touched by page
+    // workers after that, one at a time
+    private static class Session {
+        final Callable<SearchCursor> opener;
+        final Listener listener;
+        final long startNanos;
+        SwingWorker<List<CalendarController.SearchMatch>, Void> worker; // page in flight, or null
+        SearchCursor cursor; // null until the first page worker has opened it
+        long count = 0;     // matches handed to the listener
+        boolean more = true;
+
+        Session(Callable<SearchCursor> opener, Listener listener) {
+            this.opener = opener;
+            this.listener = listener;
+            this.startNanos = System.nanoTime();
+        }
+    }
+
+    private Session current; // touched on the Swing thread only
+
+    private final long[] firstNanos = new long[SAMPLES]; // search start to the first page
+    private final long[] pageNanos = new long[SAMPLES];  // request to arrival, every page
+    private int firstRecorded = 0;
+    private int pagesRecorded = 0;
+
+    // Starts a search whose cursor the opener builds in the background
+    public void search(Callable<SearchCursor> opener, Listener listener) {
+        // Detach the previous search before cancelling it, so its listener hears nothing more
+        Session previous = current;
+        current = null;
+        if (previous != null && previous.worker != null) previous.worker.cancel(false);
+
+        current = new Session(opener, listener);
+        fetchMore();
+    }
+
+    // Fetches the next page of the current search, unless one is on its way or there is no more
+    public void fetchMore() {
+        Session session = current;
+        if (session == null || session.worker != null || !session.more) return;
+        long requestNanos = System.nanoTime();
+
+        session.worker = new SwingWorker<List<CalendarController.SearchMatch>, Void>() {
+            private boolean more;
+            private long total = -1; // set when this worker opened the cursor
+
+            @Override
+            protected List<CalendarController.SearchMatch> doInBackground() throws Exception {
+                if (session.cursor == null) {
+                    session.cursor = session.opener.call();
+                    total = session.cursor.getTotalCount();
+                    if (isCancelled()) return Collections.emptyList(); // no page for a search nobody waits on
+                }
+                List<CalendarController.SearchMatch> page = session.cursor.nextPage(PAGE_SIZE);
+                more = session.cursor.hasNext();
+                return page;
+            }
+
+            @Override
+            protected void done() {
+                // A page that lands after a cancel or a newer search is dropped
+                if (current != session || isCancelled()) return;
+                session.worker = null;
+                List<CalendarController.SearchMatch> page;
+                try {
+                    page = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                    current = null;
+                    session.listener.onDone(session.count, true);
+                    return;
+                }
+                long now = System.nanoTime();
+                record(session.count == 0 ? now - session.startNanos : -1, now - requestNanos);
+                if (total >= 0) session.listener.onOpened(total);
+                session.count += page.size();
+                session.more = more;
+                session.listener.onResults(page);
+                if (!more) {
+                    current = null;
+                    session.listener.onDone(session.count, false);
+                }
+            }
+        };
+        session.worker.execute();
+    }
+
+    // Ends the current search, if any; its listener is told it was cancelled and hears nothing more
+    public void cancel() {
+        Session session = current;
+        if (session == null) return;
+        current = null;
+        if (session.worker != null) session.worker.cancel(false);
+        session.listener.onDone(session.count, true);
+    }
+
+    // True while a search still has matches to fetch
+    public boolean isSearching() {
+        return current != null;
+    }
+
+    // --- Latency ---
+    // first < 0 when the page is not a search's first
+    private synchronized void record(long first, long page) {
+        if (first >= 0) firstNanos[firstRecorded++ % SAMPLES] = first;
+        pageNanos[pagesRecorded++ % SAMPLES] = page;
+    }
+
+    public synchronized int getSampleCount() {
+        return Math.min(firstRecorded, SAMPLES);
+    }
+
+    // Percentile (0-100) of the time to the first page over recent searches, in milliseconds
+    public synchronized double getFirstResultMillis(double percentile) {
+        return percentile(firstNanos, firstRecorded, percentile);
+    }
+
+    // Percentile (0-100) of the time to fetch a page over recent fetches, in milliseconds
+    public synchronized double getPageMillis(double percentile) {
+        return percentile(pageNanos, pagesRecorded, percentile);
+    }
+
+    private static double percentile(long[] samples, int recorded, double percentile) {
+        int n = Math.min(recorded, SAMPLES);
+        if (n == 0) return 0;
+        long[] sorted = Arrays.copyOf(samples, n);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * n) - 1; // nearest rank
+        return sorted[Math.max(0, Math.min(n - 1, rank))] / 1_000_000.0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("SearchService[%d searches, first result p50 %.1f / p90 %.1f / p99 %.1f ms, "
+                        + "page p50 %.1f / p90 %.1f / p99 %.1f ms]",
+                getSampleCount(),
+                getFirstResultMillis(50), getFirstResultMillis(90), getFirstResultMillis(99),
+                getPageMillis(50), getPageMillis(90), getPageMillis(99));
+    }
+}
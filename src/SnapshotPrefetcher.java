@@ -0,0 +1,107 @@
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Builds RangeSnapshots for the ranges next to the visible one on a background thread,
+// so navigating swaps in a finished snapshot instead of expanding on the Swing thread.
+//
+// The candidate events are looked up by the caller; only the expansion and per-day
+// conflict checks run in the background. A cached range is dropped as soon as an event
+// whose span touches it changes, including one whose snapshot is still being built.
+// The controller's writer fills and invalidates it while readers on any thread look
+// ranges up, so the entry list is guarded by this object.
+public class SnapshotPrefetcher {
+
+    private static class Entry {
+        final LocalDate start, end;
+        final Future<RangeSnapshot> result;
+
+        Entry(LocalDate start, LocalDate end, Future<RangeSnapshot> result) {
+            this.start = start;
+            this.end = end;
+            this.result = result;
+        }
+
+        boolean is(LocalDate from, LocalDate to) { return start.equals(from) && end.equals(to); }
+        boolean overlaps(LocalDate from, LocalDate to) { return !from.isAfter(end) && !to.isBefore(start); }
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "calendar-prefetch");
+        t.setDaemon(true);
+        return t;
+    });
+    private final List<Entry> entries = new ArrayList<>();
+    private final OccurrenceCache cache;
+
+    public SnapshotPrefetcher(OccurrenceCache cache) {
+        this.cache = cache;
+    }
+
+    // Starts building the snapshot unless the range is cached already
+    public synchronized void prefetch(LocalDate start, LocalDate end, List<Event> candidates) {
+        if (find(start, end) != null) return;
+        entries.add(new Entry(start, end, executor.submit(() -> RangeSnapshot.build(start, end, candidates, cache))));
+    }
+
+    // Stores a snapshot built on the caller's thread, so returning to it is free too
+    public synchronized void put(RangeSnapshot snapshot) {
+        if (find(snapshot.getStart(), snapshot.getEnd()) != null) return;
+        entries.add(new Entry(snapshot.getStart(), snapshot.getEnd(), CompletableFuture.completedFuture(snapshot)));
+    }
+
+    // The cached snapshot for exactly this range, waiting for it if it is still being
+    // built, or null if the range was never prefetched or has been invalidated
+    public RangeSnapshot get(LocalDate start, LocalDate end) {
+        Entry entry;
+        synchronized (this) {
+            entry = find(start, end);
+        }
+        if (entry == null) return null;
+        try {
+            return entry.result.get(); // waited for outside the lock, so writers are not held up
+        } catch (CancellationException e) {
+            return null; // invalidated while we waited
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        }
+        synchronized (this) {
+            entries.remove(entry);
+        }
+        return null;
+    }
+
+    // Drops every range except the given ones, keeping the cache to the current neighbourhood
+    public synchronized void retain(List<LocalDate[]> ranges) {
+        entries.removeIf(entry -> {
+            for (LocalDate[] r : ranges) {
+                if (entry.is(r[0], r[1])) return false;
+            }
+            entry.result.cancel(false);
+            return true;
+        });
+    }
+
+    // Drops every range sharing a day with [from, to]
+    public synchronized void invalidate(LocalDate from, LocalDate to) {
+        entries.removeIf(entry -> {
+            if (!entry.overlaps(from, to)) return false;
+            entry.result.cancel(false);
+            return true;
+        });
+    }
+
+    public synchronized void clear() {
+        for (Entry entry : entries) entry.result.cancel(false);
+        entries.clear();
+    }
+
+    private Entry find(LocalDate start, LocalDate end) {
+        for (Entry entry : entries) {
+            if (entry.is(start, end)) return entry;
+        }
+        return null;
+    }
+}
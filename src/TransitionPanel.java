@@ -1,76 +1,127 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
 
+// Slides the old contents out and the new contents in when navigating.
+// The two snapshot buffers are kept between transitions (VolatileImages when the panel
+// is on screen) and only reallocated when the panel changes size.
 public class TransitionPanel extends JPanel {
-    private BufferedImage imgOld;
-    private BufferedImage imgNew;
+    private static final long DURATION_NANOS = 300_000_000L; // 300 ms, however many frames fit
+
+    private Image imgOld;
+    private Image imgNew;
     private float progress = 0f;
     private boolean isAnimating = false;
     private int direction = 0; // -1 for Right (Prev), 1 for Left (Next)
-    private Timer timer;
+    private long startNanos;
+    private final Timer timer;
 
     public TransitionPanel() {
         super(new BorderLayout());
+        int fps = 60;
+        timer = new Timer(1000 / fps, e -> {
+            float t = Math.min(1f, (System.nanoTime() - startNanos) / (float) DURATION_NANOS);
+            progress = t * t * (3 - 2 * t); // ease in and out
+            if (t >= 1f) finish();
+            repaint(); // Triggers paintChildren()
+        });
+        timer.setCoalesce(true);
     }
 
     public void animate(int direction, Runnable updateLogic) {
-        if (isAnimating && timer != null && timer.isRunning()) {
-            timer.stop(); // Stop any existing animation
-        }
-
-        this.direction = direction;
         int w = getWidth();
         int h = getHeight();
+        if (w <= 0 || h <= 0) {
+            updateLogic.run();
+            return;
+        }
 
-        // 1. Snapshot "Before" state
-        imgOld = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
-        this.paint(imgOld.getGraphics()); // Use paint() to capture all children
+        // 1. Snapshot "Before" state. If a transition is still running, its target is
+        //    exactly what is on screen now, so that buffer becomes the old one as is.
+        if (isAnimating && sameSize(imgNew, w, h)) {
+            Image previousTarget = imgNew;
+            imgNew = imgOld;
+            imgOld = previousTarget;
+            timer.stop();
+            isAnimating = false;
+        } else {
+            timer.stop();
+            isAnimating = false;
+            imgOld = snapshot(imgOld, w, h);
+        }
+        this.direction = direction;
 
         // 2. Run the Logic (Change Month, Rebuild Grid)
         updateLogic.run();
-        
+
         // 3. Force Layout to validate the new Grid immediately
         this.validate();
-        this.revalidate(); // Ensure hierarchy is up to date
-        this.doLayout();   // Force components to arrange
+        this.doLayout();
 
         // 4. Snapshot "After" state
-        imgNew = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
-        this.paint(imgNew.getGraphics()); // Capture the new state
+        imgNew = snapshot(imgNew, w, h);
 
         // 5. Start Animation
         this.isAnimating = true;
         this.progress = 0f;
+        this.startNanos = System.nanoTime();
+        timer.start();
+    }
 
-        // Animation Speed Configuration
-        int duration = 300; // milliseconds
-        int fps = 60;
-        int delay = 1000 / fps;
-        int steps = duration / delay;
-        float stepSize = 1.0f / steps;
-
-        timer = new Timer(delay, e -> {
-            progress += stepSize;
-            if (progress >= 1.0f) {
-                progress = 1.0f;
-                isAnimating = false;
-                timer.stop();
+    private void finish() {
+        progress = 1f;
+        isAnimating = false;
+        timer.stop();
+    }
+
+    // Paints the current children into the given buffer, replacing it only if the size
+    // or the screen it was made for changed
+    private Image snapshot(Image buffer, int w, int h) {
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        if (gc == null || GraphicsEnvironment.isHeadless()) {
+            if (!(buffer instanceof BufferedImage) || !sameSize(buffer, w, h)) {
+                buffer = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
             }
-            repaint(); // Triggers paintChildren()
-        });
-        timer.start();
+            Graphics2D g = ((BufferedImage) buffer).createGraphics();
+            this.paint(g); // Use paint() to capture all children
+            g.dispose();
+            return buffer;
+        }
+
+        VolatileImage vi = buffer instanceof VolatileImage && sameSize(buffer, w, h) ? (VolatileImage) buffer : null;
+        do {
+            if (vi == null || vi.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) {
+                if (vi != null) vi.flush();
+                vi = gc.createCompatibleVolatileImage(w, h);
+            }
+            Graphics2D g = vi.createGraphics();
+            this.paint(g);
+            g.dispose();
+        } while (vi.contentsLost());
+        return vi;
+    }
+
+    private static boolean sameSize(Image img, int w, int h) {
+        return img != null && img.getWidth(null) == w && img.getHeight(null) == h;
+    }
+
+    private static boolean lost(Image img) {
+        return img instanceof VolatileImage && ((VolatileImage) img).contentsLost();
     }
 
     @Override
     protected void paintChildren(Graphics g) {
+        // A lost VolatileImage cannot be repainted with the old state, so just end the slide
+        if (isAnimating && (lost(imgOld) || lost(imgNew))) finish();
+
         // If animating, draw the sliding images INSTEAD of the buttons
         if (isAnimating) {
             Graphics2D g2 = (Graphics2D) g;
             int w = getWidth();
-            
+
             int offset = (int) (w * progress);
-            
+
             int oldX, newX;
             if (direction > 0) { // Next Month (Slide Left)
                 oldX = -offset;
@@ -83,7 +134,7 @@ public class TransitionPanel extends JPanel {
             // Draw the snapshots
             if (imgOld != null) g2.drawImage(imgOld, oldX, 0, null);
             if (imgNew != null) g2.drawImage(imgNew, newX, 0, null);
-            
+
         } else {
             // If NOT animating, draw the normal buttons/grid
             super.paintChildren(g);